@@ -0,0 +1,76 @@
+package io.davidarchanjo.code.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.davidarchanjo.code.config.AppProperties;
+import io.davidarchanjo.code.exception.ErrorResponses;
+import io.davidarchanjo.code.filter.LoadSheddingWebFilter;
+import io.davidarchanjo.code.filter.RateLimitWebFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost the rate limiter and the load shedder add to every request they let through, with several threads
+ * contending on the same client buckets and concurrency slots, against a chain that answers straight away.
+ * Budgets are large enough for nothing to be refused, and the filters only read the exchange, so one is built
+ * per client up front; {@code none} measures the bare chain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@Threads(4)
+public class AdmissionBenchmark {
+
+    private static final int CLIENTS = 16;
+    private static final WebFilterChain CHAIN = exchange -> Mono.empty();
+
+    @Param({"none", "rateLimit", "shedding"})
+    public String filter;
+
+    private WebFilter webFilter;
+    private final MockServerWebExchange[] exchanges = new MockServerWebExchange[CLIENTS];
+
+    @Setup
+    public void setUp() {
+        final AppProperties properties = new AppProperties();
+        properties.getRateLimit().getFunctional().setCapacity(1_000_000_000);
+        properties.getRateLimit().getFunctional().setRefillPerSecond(1_000_000_000);
+        final ErrorResponses errorResponses = new ErrorResponses(new ObjectMapper());
+        webFilter = switch (filter) {
+            case "rateLimit" -> new RateLimitWebFilter(properties, errorResponses);
+            case "shedding" -> new LoadSheddingWebFilter(properties, errorResponses);
+            default -> (exchange, chain) -> chain.filter(exchange);
+        };
+        for (int i = 0; i < CLIENTS; i++) {
+            exchanges[i] = MockServerWebExchange.from(MockServerHttpRequest.get("/api/functional/apps/1")
+                .remoteAddress(new InetSocketAddress("10.0.0." + (i + 1), 40_000)));
+        }
+    }
+
+    @Benchmark
+    public Void filter() {
+        return webFilter.filter(exchanges[ThreadLocalRandom.current().nextInt(CLIENTS)], CHAIN).block();
+    }
+
+}
@@ -0,0 +1,70 @@
+package io.davidarchanjo.code.benchmark;
+
+import io.davidarchanjo.code.builder.AppBuilder;
+import io.davidarchanjo.code.model.domain.App;
+import io.davidarchanjo.code.model.dto.AppDTO;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.config.Configuration.AccessLevel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link AppBuilder} with the reflective ModelMapper configuration it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class AppBuilderBenchmark {
+
+    private AppBuilder builder;
+    private ModelMapper modelMapper;
+    private App app;
+    private AppDTO dto;
+
+    @Setup
+    public void setUp() {
+        builder = new AppBuilder();
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+            .setSkipNullEnabled(true)
+            .setFieldAccessLevel(AccessLevel.PRIVATE)
+            .setFieldMatchingEnabled(true);
+
+        app = new App(42L, "Netflix", "Foo Bar", "0.0.1-SNAPSHOT");
+        dto = new AppDTO("Netflix", "0.0.1-SNAPSHOT", "Foo Bar");
+    }
+
+    @Benchmark
+    public AppDTO toDtoBuilder() {
+        return builder.build(app);
+    }
+
+    @Benchmark
+    public AppDTO toDtoModelMapper() {
+        return modelMapper.map(app, AppDTO.class);
+    }
+
+    @Benchmark
+    public App toDomainBuilder() {
+        return builder.build(dto);
+    }
+
+    @Benchmark
+    public App toDomainModelMapper() {
+        return modelMapper.map(dto, App.class);
+    }
+
+}
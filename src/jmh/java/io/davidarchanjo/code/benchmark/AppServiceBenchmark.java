@@ -0,0 +1,71 @@
+package io.davidarchanjo.code.benchmark;
+
+import io.davidarchanjo.code.model.dto.AppDTO;
+import io.davidarchanjo.code.service.AppService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link AppService} operations against the in-memory H2 database, without the web layer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class AppServiceBenchmark {
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private AppService service;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start(WebApplicationType.NONE);
+        service = context.getBean(AppService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AppDTO findById() {
+        return service.findById(1L).block();
+    }
+
+    @Benchmark
+    public AppDTO findByNameAndVersion() {
+        return service.findByNameAndVersion("Netflix", "0.0.1-SNAPSHOT").block();
+    }
+
+    @Benchmark
+    public List<AppDTO> findAll() {
+        return service.findAll().collectList().block();
+    }
+
+    @Benchmark
+    public void saveAndDelete() {
+        final AppDTO saved = service.save(new AppDTO("App " + sequence.incrementAndGet(), "1.0.0", "Foo Bar")).block();
+        service.deleteById(saved.getId()).block();
+    }
+
+}
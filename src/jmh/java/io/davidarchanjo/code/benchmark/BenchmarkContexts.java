@@ -0,0 +1,37 @@
+package io.davidarchanjo.code.benchmark;
+
+import io.davidarchanjo.code.application.Application;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+final class BenchmarkContexts {
+
+    private BenchmarkContexts() {
+    }
+
+    static ConfigurableApplicationContext start(WebApplicationType type, String... properties) {
+        final List<String> defaults = new ArrayList<>(List.of(
+            "server.port=0",
+            "logging.level.root=WARN",
+            "spring.devtools.restart.enabled=false",
+            "spring.main.banner-mode=off",
+            // Every benchmark thread calls as the same client, which the rate limiter would soon hold back.
+            "app.rate-limit.enabled=false"));
+        defaults.addAll(Arrays.asList(properties));
+
+        // Passed as command-line arguments, as default properties would lose to those set in application.yml.
+        return new SpringApplicationBuilder(Application.class)
+            .web(type)
+            .run(defaults.stream().map(o -> "--" + o).toArray(String[]::new));
+    }
+
+    static int port(ConfigurableApplicationContext context) {
+        return Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+    }
+
+}
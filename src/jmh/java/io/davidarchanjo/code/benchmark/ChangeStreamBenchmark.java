@@ -0,0 +1,73 @@
+package io.davidarchanjo.code.benchmark;
+
+import io.davidarchanjo.code.config.AppProperties;
+import io.davidarchanjo.code.event.AppChangeStream;
+import io.davidarchanjo.code.model.dto.AppChangeDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.Disposable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost a mutation pays to publish its change event to a growing number of subscribers, and of a client
+ * resuming from the oldest retained event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class ChangeStreamBenchmark {
+
+    @Param({"0", "16", "256"})
+    public int subscribers;
+
+    private AppChangeStream stream;
+    private List<Disposable> subscriptions;
+    private long appId;
+
+    @Setup
+    public void setUp() {
+        final AppProperties properties = new AppProperties();
+        stream = new AppChangeStream(properties, new SimpleMeterRegistry());
+        subscriptions = new ArrayList<>(subscribers);
+        for (int i = 0; i < subscribers; i++) {
+            subscriptions.add(stream.changes(null).subscribe());
+        }
+        // Exactly a full history, so resuming after event 0 replays all of it.
+        for (int i = 0; i < properties.getChanges().getHistorySize(); i++) {
+            stream.updated((long) i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        subscriptions.forEach(Disposable::dispose);
+    }
+
+    @Benchmark
+    public void publish() {
+        stream.updated(++appId);
+    }
+
+    @Benchmark
+    public List<AppChangeDTO> resume() {
+        return stream.changes(0L).take(1000).collectList().block();
+    }
+
+}
@@ -0,0 +1,95 @@
+package io.davidarchanjo.code.benchmark;
+
+import io.davidarchanjo.code.exception.AppNotFoundException;
+import io.davidarchanjo.code.model.dto.AppDTO;
+import io.davidarchanjo.code.model.dto.AppPageDTO;
+import io.davidarchanjo.code.model.dto.AppSearchDTO;
+import io.davidarchanjo.code.service.AppService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Many threads reading the same few apps, a missing one and the same search page at once, with the cache off
+ * so every read that is not coalesced reaches the repository. Besides the throughput, the share of reads that
+ * joined one already in flight is printed at the end of each run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@Threads(16)
+public class CoalescingBenchmark {
+
+    private static final AppSearchDTO SEARCH = AppSearchDTO.builder().author("Foo Bar").sort("appName").build();
+
+    @Param({"true", "false"})
+    public boolean coalescing;
+
+    private final LongAdder reads = new LongAdder();
+
+    private ConfigurableApplicationContext context;
+    private AppService service;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start(WebApplicationType.NONE,
+            "app.cache.enabled=false",
+            "app.coalescing.enabled=" + coalescing);
+        service = context.getBean(AppService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        final double coalesced = context.getBean(MeterRegistry.class)
+            .find("app.service.coalesced")
+            .functionCounters()
+            .stream()
+            .mapToDouble(FunctionCounter::count)
+            .sum();
+        System.out.printf("%ncoalesced reads: %.1f%%%n", 100 * coalesced / reads.sum());
+        context.close();
+    }
+
+    @Benchmark
+    public AppDTO findById() {
+        reads.increment();
+        return service.findById(ThreadLocalRandom.current().nextLong(1, 4)).block();
+    }
+
+    @Benchmark
+    public AppDTO findMissing() {
+        reads.increment();
+        return service.findById(0L)
+            .onErrorResume(AppNotFoundException.class, e -> Mono.empty())
+            .block();
+    }
+
+    @Benchmark
+    public AppPageDTO search() {
+        reads.increment();
+        return service.search(SEARCH).block();
+    }
+
+}
@@ -0,0 +1,133 @@
+package io.davidarchanjo.code.benchmark;
+
+import io.davidarchanjo.code.model.dto.AppDTO;
+import io.davidarchanjo.code.service.AppService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streaming the whole catalogue as NDJSON over HTTP/1.1 and cleartext HTTP/2, with and without gzip, for
+ * catalogues of several sizes. The apps are kept in memory so that the database does not hide the cost of
+ * encoding and compressing. The sampled times give the latency percentiles, and the body bytes received per
+ * response, before the client inflates them, are printed once each run is over.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class CompressionBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int apps;
+
+    @Param({"identity", "gzip"})
+    public String encoding;
+
+    @Param({"HTTP_1_1", "HTTP_2"})
+    public HttpClient.Version protocol;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+    private long wireBytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = BenchmarkContexts.start(WebApplicationType.REACTIVE, "spring.profiles.active=memory", "app.shedding.enabled=false");
+        context.getBean(AppService.class)
+            .importAll(Flux.range(0, apps).map(i -> new AppDTO("App " + i, "1." + (i % 10) + "." + i, "Author " + (i % 1000))))
+            .block();
+
+        // Without TLS, the client upgrades its first request to HTTP/2 and keeps the connection for the others.
+        client = HttpClient.newBuilder().version(protocol).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + BenchmarkContexts.port(context) + "/api/functional/apps"))
+            .header("Accept", "application/x-ndjson")
+            .header("Accept-Encoding", encoding)
+            .build();
+        final HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        read(response);
+        if (client.send(request, HttpResponse.BodyHandlers.discarding()).version() != protocol) {
+            throw new IllegalStateException("Not answered over " + protocol);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.printf("%n%d apps, %s, %s: %d body bytes received per response%n", apps, encoding, protocol, wireBytes);
+        context.close();
+    }
+
+    @Benchmark
+    public long findAll() throws Exception {
+        return read(client.send(request, HttpResponse.BodyHandlers.ofInputStream()));
+    }
+
+    // Inflates the body as a client would, returning its size while keeping the size it had on the wire.
+    private long read(HttpResponse<InputStream> response) throws IOException {
+        final CountingInputStream wire = new CountingInputStream(response.body());
+        final boolean gzipped = response.headers().firstValue("Content-Encoding").filter("gzip"::equalsIgnoreCase).isPresent();
+        try (InputStream body = gzipped ? new GZIPInputStream(wire, 8192) : wire) {
+            final byte[] buffer = new byte[8192];
+            long size = 0;
+            for (int read; (read = body.read(buffer)) != -1; ) {
+                size += read;
+            }
+            wireBytes = wire.count;
+            return size;
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int read = super.read();
+            if (read != -1) {
+                count++;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+    }
+
+}
@@ -0,0 +1,75 @@
+package io.davidarchanjo.code.benchmark;
+
+import io.davidarchanjo.code.model.domain.App;
+import io.davidarchanjo.code.repository.AppRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository queries issued from several threads at once, to size the connection pool and the H2 query
+ * cache. The service layer and its cache are bypassed so every call acquires a connection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@Threads(16)
+public class ConnectionPoolBenchmark {
+
+    private static final List<String> NAMES = List.of("Netflix", "Facebook", "Chrome", "Missing");
+
+    @Param({"1", "4", "16"})
+    public int maxSize;
+
+    @Param({"8", "64"})
+    public int queryCacheSize;
+
+    private ConfigurableApplicationContext context;
+    private AppRepository repository;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start(WebApplicationType.NONE,
+            "spring.r2dbc.url=r2dbc:h2:mem:///appdb?options=DB_CLOSE_DELAY=-1;QUERY_CACHE_SIZE=" + queryCacheSize,
+            "spring.r2dbc.pool.initial-size=" + maxSize,
+            "spring.r2dbc.pool.max-size=" + maxSize);
+        repository = context.getBean(AppRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public App findById() {
+        return repository.findById(ThreadLocalRandom.current().nextLong(1, 4)).block();
+    }
+
+    @Benchmark
+    public List<String> findExistingNames() {
+        return repository.findExistingNames(NAMES.subList(0, ThreadLocalRandom.current().nextInt(1, NAMES.size() + 1)))
+            .collectList()
+            .block();
+    }
+
+}
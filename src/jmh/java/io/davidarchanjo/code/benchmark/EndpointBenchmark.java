@@ -0,0 +1,123 @@
+package io.davidarchanjo.code.benchmark;
+
+import io.davidarchanjo.code.model.dto.AppDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end HTTP calls against the functional ({@code AppRouter}) and annotation ({@code AppController}) stacks.
+ * Both are adapters over the same {@code AppRequestHandler}, so each call should score within a few percent on
+ * either; the invalid ones are answered from the shared parsing and validation without reaching the service.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class EndpointBenchmark {
+
+    @Param({"functional", "annotation"})
+    private String stack;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private WebTestClient client;
+    private String basePath;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start(WebApplicationType.REACTIVE);
+        client = WebTestClient.bindToServer()
+            .baseUrl("http://localhost:" + BenchmarkContexts.port(context))
+            .build();
+        basePath = "/api/" + stack + "/apps";
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] getById() {
+        return client.get().uri(basePath + "/1")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().returnResult().getResponseBody();
+    }
+
+    @Benchmark
+    public byte[] getByNameAndVersion() {
+        return client.get().uri(basePath + "?appName=Netflix&appVersion=0.0.1-SNAPSHOT")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().returnResult().getResponseBody();
+    }
+
+    @Benchmark
+    public byte[] getAll() {
+        return client.get().uri(basePath)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().returnResult().getResponseBody();
+    }
+
+    @Benchmark
+    public byte[] getMissing() {
+        return client.get().uri(basePath + "/0")
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectBody().returnResult().getResponseBody();
+    }
+
+    @Benchmark
+    public void createAndDelete() {
+        final AppDTO dto = new AppDTO("App " + sequence.incrementAndGet(), "1.0.0", "Foo Bar");
+        final URI location = client.post().uri(basePath)
+            .bodyValue(dto)
+            .exchange()
+            .expectStatus().isCreated()
+            .expectBody(AppDTO.class).returnResult()
+            .getResponseHeaders().getLocation();
+        client.delete().uri(location.getPath())
+            .exchange()
+            .expectStatus().isNoContent();
+    }
+
+    @Benchmark
+    public byte[] createInvalid() {
+        return client.post().uri(basePath)
+            .bodyValue(new AppDTO("", "1.0.0", "Foo Bar"))
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody().returnResult().getResponseBody();
+    }
+
+    @Benchmark
+    public byte[] getMalformedId() {
+        return client.get().uri(basePath + "/abc")
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody().returnResult().getResponseBody();
+    }
+
+}
@@ -0,0 +1,70 @@
+package io.davidarchanjo.code.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of requests answered with an error, as seen under client misuse or attack traffic.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class ErrorPathBenchmark {
+
+    @Param({"functional", "annotation"})
+    private String stack;
+
+    private ConfigurableApplicationContext context;
+    private WebTestClient client;
+    private String basePath;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start(WebApplicationType.REACTIVE);
+        client = WebTestClient.bindToServer()
+            .baseUrl("http://localhost:" + BenchmarkContexts.port(context))
+            .build();
+        basePath = "/api/" + stack + "/apps";
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] notFound() {
+        return client.get().uri(basePath + "/0")
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectBody().returnResult().getResponseBody();
+    }
+
+    @Benchmark
+    public byte[] preconditionFailed() {
+        return client.delete().uri(basePath + "/1")
+            .header("If-Match", "\"-1\"")
+            .exchange()
+            .expectStatus().isEqualTo(412)
+            .expectBody().returnResult().getResponseBody();
+    }
+
+}
@@ -0,0 +1,137 @@
+package io.davidarchanjo.code.benchmark;
+
+import io.davidarchanjo.code.model.dto.AppBatchResultDTO;
+import io.davidarchanjo.code.model.dto.AppDTO;
+import io.davidarchanjo.code.service.AppService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bursts of concurrent HTTP calls against the reactive functional endpoints and the blocking execution mode,
+ * over the same database. The cache and coalescing are off and nothing is shed, so every call of either reaches
+ * the database through a pool of the same size, waiting for a connection for as long as it takes. Each operation is a burst of {@code concurrency} calls in flight
+ * at once: the sampled time is that of its slowest call, and the calls served per second are {@code concurrency}
+ * over the mean. The peak count of live threads and of heap in use are printed once each trial is over; run with
+ * {@code -prof gc} for the allocations per burst.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class ExecutionModeBenchmark {
+
+    private static final int APPS = 1000;
+
+    @Param({"functional", "blocking"})
+    public String mode;
+
+    @Param({"64", "512"})
+    public int concurrency;
+
+    private ConfigurableApplicationContext context;
+    private ConnectionProvider connections;
+    private WebClient client;
+    private String basePath;
+    private long[] ids;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start(WebApplicationType.REACTIVE,
+            "app.blocking.enabled=true",
+            "app.cache.enabled=false",
+            "app.coalescing.enabled=false",
+            "app.shedding.enabled=false",
+            // A whole burst may queue for a connection, which neither mode should fail while it waits.
+            "spring.r2dbc.pool.max-acquire-time=1m",
+            "app.blocking.max-acquire-time=1m");
+        ids = context.getBean(AppService.class)
+            .saveAll(Flux.range(0, APPS).map(i -> new AppDTO("Burst " + i, "1.0." + i, "Author")))
+            .map(AppBatchResultDTO::getId)
+            .collectList()
+            .block()
+            .stream()
+            .mapToLong(Long::longValue)
+            .toArray();
+        connections = ConnectionProvider.builder("benchmark")
+            .maxConnections(concurrency)
+            .pendingAcquireMaxCount(-1)
+            .build();
+        client = WebClient.builder()
+            .baseUrl("http://localhost:" + BenchmarkContexts.port(context))
+            .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+            .build();
+        basePath = "/api/" + mode + "/apps";
+
+        ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+        heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    @TearDown
+    public void tearDown() {
+        final long peakHeap = heapPools().stream().mapToLong(o -> o.getPeakUsage().getUsed()).sum();
+        System.out.printf("%n%s x %d: peak %d live threads, peak %d MB of heap in use%n",
+            mode, concurrency, ManagementFactory.getThreadMXBean().getPeakThreadCount(), peakHeap >> 20);
+        connections.dispose();
+        context.close();
+    }
+
+    @Benchmark
+    public Long getById() {
+        return Flux.range(0, concurrency)
+            .flatMap(i -> client.get().uri(basePath + "/{id}", id())
+                .retrieve()
+                .toBodilessEntity(), concurrency)
+            .count()
+            .block();
+    }
+
+    @Benchmark
+    public Long update() {
+        return Flux.range(0, concurrency)
+            .flatMap(i -> client.patch().uri(basePath + "/{id}", id())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new AppDTO(null, null, "Author " + i))
+                .retrieve()
+                .toBodilessEntity(), concurrency)
+            .count()
+            .block();
+    }
+
+    private long id() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(o -> o.getType() == MemoryType.HEAP)
+            .toList();
+    }
+
+}
@@ -0,0 +1,87 @@
+package io.davidarchanjo.code.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.davidarchanjo.code.exception.ErrorIndicator;
+import io.davidarchanjo.code.model.dto.AppDTO;
+import io.davidarchanjo.code.model.dto.ErrorDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Jackson (de)serialisation of the DTOs, configured the way Spring Boot configures the web codecs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class JsonBenchmark {
+
+    @Param({"100"})
+    private int listSize;
+
+    private ObjectMapper objectMapper;
+    private AppDTO dto;
+    private byte[] dtoJson;
+    private List<AppDTO> dtos;
+    private ErrorDTO error;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        dto = new AppDTO("Netflix", "0.0.1-SNAPSHOT", "Foo Bar");
+        dto.setId(42L);
+        dtoJson = objectMapper.writeValueAsBytes(dto);
+        dtos = LongStream.range(0, listSize)
+            .mapToObj(i -> {
+                final AppDTO o = new AppDTO("App " + i, "1.0." + i, "Foo Bar");
+                o.setId(i);
+                return o;
+            })
+            .collect(Collectors.toList());
+        error = ErrorDTO.builder()
+            .code(ErrorIndicator.ERROR_RESOURCE_NOT_FOUND.getCode())
+            .message(ErrorIndicator.ERROR_RESOURCE_NOT_FOUND.getMessage())
+            .httpStatus(HttpStatus.NOT_FOUND)
+            .build();
+    }
+
+    @Benchmark
+    public byte[] writeApp() throws Exception {
+        return objectMapper.writeValueAsBytes(dto);
+    }
+
+    @Benchmark
+    public byte[] writeAppList() throws Exception {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public AppDTO readApp() throws Exception {
+        return objectMapper.readValue(dtoJson, AppDTO.class);
+    }
+
+    @Benchmark
+    public byte[] writeError() throws Exception {
+        return objectMapper.writeValueAsBytes(error);
+    }
+
+}
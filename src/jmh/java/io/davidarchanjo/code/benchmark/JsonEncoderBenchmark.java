@@ -0,0 +1,110 @@
+package io.davidarchanjo.code.benchmark;
+
+import io.davidarchanjo.code.builder.AppJsonEncoder;
+import io.davidarchanjo.code.model.dto.AppDTO;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Apps written to response buffers by Jackson, as the web codecs do by default, and by {@link AppJsonEncoder},
+ * into the pooled buffers of Reactor Netty. Each operation returns the bytes written, its buffers released. That
+ * both write the very same bytes is checked by {@code AppJsonEncoderTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class JsonEncoderBenchmark {
+
+    private static final ResolvableType APP_TYPE = ResolvableType.forClass(AppDTO.class);
+
+    @Param({"jackson", "pre-encoded"})
+    public String encoder;
+
+    @Param({"100", "1000"})
+    public int listSize;
+
+    private NettyDataBufferFactory bufferFactory;
+    private Jackson2JsonEncoder jackson;
+    private AppJsonEncoder preEncoded;
+    private Encoder<? super AppDTO> selected;
+    private AppDTO dto;
+    private List<AppDTO> dtos;
+
+    @Setup
+    public void setUp() {
+        // No application context sets the log levels here, which logback would otherwise leave at debug.
+        LoggingSystem.get(getClass().getClassLoader()).setLogLevel(LoggingSystem.ROOT_LOGGER_NAME, LogLevel.INFO);
+        bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+        jackson = new Jackson2JsonEncoder(Jackson2ObjectMapperBuilder.json().build());
+        preEncoded = new AppJsonEncoder();
+        selected = "jackson".equals(encoder) ? jackson : preEncoded;
+        dto = app(42L, "Netflix", "0.0.1-SNAPSHOT", "Foo Bar");
+        dtos = IntStream.range(0, listSize)
+            .mapToObj(i -> app((long) i, "App " + i, "1.0." + i, "Foo Bar"))
+            .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public int writeApp() {
+        return write(selected, Mono.just(dto), MediaType.APPLICATION_JSON);
+    }
+
+    @Benchmark
+    public int writeAppList() {
+        return write(selected, Flux.fromIterable(dtos), MediaType.APPLICATION_JSON);
+    }
+
+    @Benchmark
+    public int streamApps() {
+        return write(selected, Flux.fromIterable(dtos), MediaType.APPLICATION_NDJSON);
+    }
+
+    private int write(Encoder<? super AppDTO> encoder, Publisher<AppDTO> apps, MimeType mimeType) {
+        return encoder.encode(apps, bufferFactory, APP_TYPE, mimeType, null)
+            .map(o -> {
+                final int size = o.readableByteCount();
+                DataBufferUtils.release(o);
+                return size;
+            })
+            .reduce(0, Integer::sum)
+            .block();
+    }
+
+    private static AppDTO app(Long id, String name, String version, String author) {
+        final AppDTO o = new AppDTO(name, version, author);
+        o.setId(id);
+        return o;
+    }
+
+}
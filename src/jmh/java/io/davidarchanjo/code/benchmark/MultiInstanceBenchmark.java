@@ -0,0 +1,94 @@
+package io.davidarchanjo.code.benchmark;
+
+import io.davidarchanjo.code.model.dto.AppDTO;
+import io.davidarchanjo.code.service.AppService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creating apps and reading cached ones through one or two instances started in the same JVM, sharing the
+ * database and connected through the loopback invalidation bus, with ids reserved one at a time or in blocks.
+ * Before measuring, each instance is checked to read the update just made through the other, cache or not.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@Threads(4)
+public class MultiInstanceBenchmark {
+
+    @Param({"1", "2"})
+    public int instances;
+
+    @Param({"1", "100"})
+    public int idBlockSize;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext[] contexts;
+    private AppService[] services;
+
+    @Setup
+    public void setUp() {
+        contexts = new ConfigurableApplicationContext[instances];
+        services = new AppService[instances];
+        for (int i = 0; i < instances; i++) {
+            contexts[i] = BenchmarkContexts.start(WebApplicationType.NONE,
+                "app.cache.invalidation=loopback",
+                "app.store.id-block-size=" + idBlockSize);
+            services[i] = contexts[i].getBean(AppService.class);
+        }
+
+        for (int i = 0; i < instances; i++) {
+            final AppService reader = services[(i + 1) % instances];
+            reader.findById(1L).block();
+            services[i].updateById(1L, new AppDTO("Netflix " + i, null, null), null).block();
+            final String name = reader.findById(1L).block().getName();
+            if (!name.equals("Netflix " + i)) {
+                throw new IllegalStateException("Read " + name + " after the update made through another instance");
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (ConfigurableApplicationContext context : contexts) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public AppDTO create() {
+        final long n = sequence.incrementAndGet();
+        return instance().save(new AppDTO("App " + n, "1.0." + n, "Author")).block();
+    }
+
+    @Benchmark
+    public AppDTO findById() {
+        return instance().findById(ThreadLocalRandom.current().nextLong(1, 4)).block();
+    }
+
+    private AppService instance() {
+        return services[ThreadLocalRandom.current().nextInt(instances)];
+    }
+
+}
@@ -0,0 +1,115 @@
+package io.davidarchanjo.code.benchmark;
+
+import io.davidarchanjo.code.builder.AppBuilder;
+import io.davidarchanjo.code.model.domain.App;
+import io.davidarchanjo.code.model.dto.AppDTO;
+import io.davidarchanjo.code.model.dto.AppPageDTO;
+import io.davidarchanjo.code.model.dto.AppSearchDTO;
+import io.davidarchanjo.code.repository.AppRepository;
+import io.davidarchanjo.code.service.impl.AppServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search and lookup latency over a large catalogue, with the secondary indexes in place or dropped so every
+ * query falls back to a full table scan. Parameters change on every call because H2 hands back the previous
+ * result when a cached statement runs again with the same ones over an unchanged table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class SearchBenchmark {
+
+    private static final int CHUNK = 1000;
+    private static final int AUTHORS = 1000;
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    @Param({"true", "false"})
+    public boolean indexed;
+
+    private ConfigurableApplicationContext context;
+    private AppServiceImpl service;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start(WebApplicationType.NONE);
+        service = context.getBean(AppServiceImpl.class);
+
+        final AppBuilder builder = context.getBean(AppBuilder.class);
+        final AppRepository repository = context.getBean(AppRepository.class);
+        Flux.range(0, rows / CHUNK)
+            .concatMap(chunk -> {
+                final List<App> apps = new ArrayList<>(CHUNK);
+                for (int i = chunk * CHUNK; i < (chunk + 1) * CHUNK; i++) {
+                    apps.add(builder.build(app(i)));
+                }
+                return repository.insertAll(apps);
+            })
+            .blockLast();
+
+        if (!indexed) {
+            final DatabaseClient databaseClient = context.getBean(DatabaseClient.class);
+            for (String index : List.of("uk_app_name", "ix_app_author", "ix_app_version_key")) {
+                databaseClient.sql("DROP INDEX " + index).then().block();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AppDTO findByNameAndVersion() {
+        final AppDTO app = app(ThreadLocalRandom.current().nextInt(rows));
+        return service.findByNameAndVersion(app.getName(), app.getVersion()).block();
+    }
+
+    @Benchmark
+    public AppPageDTO searchByNamePrefix() {
+        final String prefix = "App " + ThreadLocalRandom.current().nextInt(rows / 10);
+        return service.search(AppSearchDTO.builder().name(prefix).sort("appName").limit(20).build()).block();
+    }
+
+    @Benchmark
+    public AppPageDTO searchByAuthor() {
+        final String author = "Author " + ThreadLocalRandom.current().nextInt(AUTHORS);
+        return service.search(AppSearchDTO.builder().author(author).sort("appName").limit(20).build()).block();
+    }
+
+    @Benchmark
+    public AppPageDTO searchByVersionRange() {
+        final String minor = ThreadLocalRandom.current().nextInt(rows / 10_000) + "." + ThreadLocalRandom.current().nextInt(10);
+        return service.search(AppSearchDTO.builder().minVersion(minor + ".0").maxVersion(minor + ".999").sort("appVersion").limit(20).build()).block();
+    }
+
+    private static AppDTO app(int i) {
+        return new AppDTO("App " + i, (i / 10_000) + "." + (i / 1000 % 10) + "." + (i % 1000), "Author " + (i % AUTHORS));
+    }
+
+}
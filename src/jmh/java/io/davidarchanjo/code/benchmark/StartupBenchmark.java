@@ -0,0 +1,60 @@
+package io.davidarchanjo.code.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from starting the application until it has answered a first request successfully, with and without the
+ * {@code startup} profile. Each measurement is a single start in a fresh JVM, as classes loaded and code
+ * compiled by an earlier start would hide most of the cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 5, jvmArgsAppend = "--enable-preview")
+public class StartupBenchmark {
+
+    @Param({"default", "startup"})
+    public String profile;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private ConfigurableApplicationContext context;
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int firstRequest() throws Exception {
+        context = BenchmarkContexts.start(WebApplicationType.REACTIVE, "spring.profiles.active=" + profile);
+        final HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + BenchmarkContexts.port(context) + "/api/functional/apps/1")).build();
+        final int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException("First request answered " + status);
+        }
+        return status;
+    }
+
+}
@@ -0,0 +1,95 @@
+package io.davidarchanjo.code.benchmark;
+
+import io.davidarchanjo.code.model.dto.AppDTO;
+import io.davidarchanjo.code.model.dto.AppPageDTO;
+import io.davidarchanjo.code.model.dto.AppSearchDTO;
+import io.davidarchanjo.code.service.AppService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The service over each store, from several threads at once, with the cache and coalescing off so every call
+ * reaches the store. The memory profile leaves R2DBC out entirely, as a deployment using that store would.
+ * There are four threads, as many as the server's event loops: r2dbc-h2 runs a query on the thread that got
+ * the connection, so with more blocked callers than that the pool may hand one of them everybody else's
+ * queries to run, and slow ones such as the author search can keep it from ever returning.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@Threads(4)
+public class StoreBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final int AUTHORS = 100;
+
+    @Param({"r2dbc", "memory"})
+    public String store;
+
+    private ConfigurableApplicationContext context;
+    private AppService service;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start(WebApplicationType.NONE,
+            "spring.profiles.active=" + ("memory".equals(store) ? "memory" : "default"),
+            "app.cache.enabled=false",
+            "app.coalescing.enabled=false");
+        service = context.getBean(AppService.class);
+        service.importAll(Flux.range(0, ROWS).map(i -> new AppDTO("App " + i, "1." + (i % 10) + "." + i, "Author " + (i % AUTHORS)))).block();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AppDTO findById() {
+        return service.findById(ThreadLocalRandom.current().nextLong(1, ROWS)).block();
+    }
+
+    @Benchmark
+    public AppDTO findByNameAndVersion() {
+        final int i = ThreadLocalRandom.current().nextInt(ROWS);
+        return service.findByNameAndVersion("App " + i, "1." + (i % 10) + "." + i).block();
+    }
+
+    @Benchmark
+    public AppPageDTO searchByNamePrefix() {
+        return service.search(AppSearchDTO.builder().name("App " + ThreadLocalRandom.current().nextInt(ROWS / 10)).sort("appName").limit(20).build()).block();
+    }
+
+    @Benchmark
+    public AppPageDTO searchByAuthor() {
+        return service.search(AppSearchDTO.builder().author("Author " + ThreadLocalRandom.current().nextInt(AUTHORS)).sort("appName").limit(20).build()).block();
+    }
+
+    @Benchmark
+    public Void saveAndDelete() {
+        final AppDTO app = service.save(new AppDTO(UUID.randomUUID().toString(), "1.0.0", "Benchmark")).block();
+        return service.deleteById(app.getId(), null).block();
+    }
+
+}
@@ -0,0 +1,95 @@
+package io.davidarchanjo.code.benchmark;
+
+import io.davidarchanjo.code.builder.AppTransferCodec;
+import io.davidarchanjo.code.model.dto.AppDTO;
+import io.davidarchanjo.code.service.AppService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exporting and importing the whole catalogue in each format, through the codec and the service but without
+ * HTTP. The import sends back the export taken during setup, so every run overwrites the same apps; dividing
+ * the rows by the time per operation gives the rows per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class TransferBenchmark {
+
+    private static final DataBufferFactory BUFFERS = DefaultDataBufferFactory.sharedInstance;
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    @Param({"NDJSON", "CSV"})
+    public AppTransferCodec.Format format;
+
+    private ConfigurableApplicationContext context;
+    private AppService service;
+    private AppTransferCodec codec;
+    private byte[] exported;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start(WebApplicationType.NONE, "app.cache.enabled=false");
+        service = context.getBean(AppService.class);
+        codec = context.getBean(AppTransferCodec.class);
+
+        service.importAll(Flux.range(0, rows).map(i -> new AppDTO("App " + i, "1." + (i % 10) + "." + i, "Author " + (i % 1000)))).block();
+        exported = DataBufferUtils.join(codec.encode(service.findAll(), format, BUFFERS))
+            .map(o -> {
+                final byte[] bytes = new byte[o.readableByteCount()];
+                o.read(bytes);
+                return bytes;
+            })
+            .block();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long exportAll() {
+        return codec.encode(service.findAll(), format, BUFFERS)
+            .map(o -> {
+                final int bytes = o.readableByteCount();
+                DataBufferUtils.release(o);
+                return (long) bytes;
+            })
+            .reduce(0L, Long::sum)
+            .block();
+    }
+
+    @Benchmark
+    public Long importAll() {
+        final Flux<DataBuffer> body = Flux.range(0, (exported.length + 8191) / 8192)
+            .map(i -> BUFFERS.wrap(ByteBuffer.wrap(exported, i * 8192, Math.min(8192, exported.length - i * 8192))));
+        return service.importAll(codec.decode(body, format)).block();
+    }
+
+}
@@ -0,0 +1,105 @@
+package io.davidarchanjo.code.loadtest;
+
+import lombok.Getter;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Settings of a load test run, given as {@code name=value} arguments, several of them possibly in a single
+ * whitespace-separated one. Names holding a dot, such as {@code app.cache.enabled=false}, are passed on to the
+ * application under test instead.
+ */
+@Getter
+final class LoadSettings {
+
+    private int apps = 1000;
+    private int rate = 200;
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(30);
+    private int connections = 64;
+    private int maxInFlight = 10_000;
+    private List<String> families = List.of("functional", "annotation");
+    private final Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+    private Duration sloP50 = Duration.ofMillis(10);
+    private Duration sloP99 = Duration.ofMillis(100);
+    private Duration sloP999 = Duration.ofMillis(250);
+    private double sloErrors = 0.001;
+    private long seed = 42;
+    private Path output = Path.of("target", "loadtest");
+    private final Map<String, String> application = new LinkedHashMap<>();
+
+    private LoadSettings() {
+        mix.put(Operation.GET, 60);
+        mix.put(Operation.PAGE, 10);
+        mix.put(Operation.SEARCH, 10);
+        mix.put(Operation.CREATE, 10);
+        mix.put(Operation.UPDATE, 10);
+    }
+
+    static LoadSettings parse(String... args) {
+        final LoadSettings settings = new LoadSettings();
+        for (String arg : args) {
+            for (String setting : arg.trim().split("\\s+")) {
+                if (!setting.isEmpty()) {
+                    settings.set(setting.startsWith("--") ? setting.substring(2) : setting);
+                }
+            }
+        }
+        return settings;
+    }
+
+    private void set(String setting) {
+        final int separator = setting.indexOf('=');
+        if (separator < 1) {
+            throw new IllegalArgumentException("Expected name=value - " + setting);
+        }
+        final String name = setting.substring(0, separator);
+        final String value = setting.substring(separator + 1);
+        if (name.contains(".")) {
+            application.put(name, value);
+            return;
+        }
+        switch (name) {
+            case "apps" -> apps = Integer.parseInt(value);
+            case "rate" -> rate = Integer.parseInt(value);
+            case "warmup" -> warmup = DurationStyle.detectAndParse(value);
+            case "duration" -> duration = DurationStyle.detectAndParse(value);
+            case "connections" -> connections = Integer.parseInt(value);
+            case "max-in-flight" -> maxInFlight = Integer.parseInt(value);
+            case "families" -> families = Arrays.asList(value.split(","));
+            case "mix" -> mix(value);
+            case "slo-p50" -> sloP50 = DurationStyle.detectAndParse(value);
+            case "slo-p99" -> sloP99 = DurationStyle.detectAndParse(value);
+            case "slo-p999" -> sloP999 = DurationStyle.detectAndParse(value);
+            case "slo-errors" -> sloErrors = Double.parseDouble(value);
+            case "seed" -> seed = Long.parseLong(value);
+            case "output" -> output = Path.of(value);
+            default -> throw new IllegalArgumentException("Unknown setting - " + name);
+        }
+    }
+
+    // Weights per operation, such as get:80,create:20; those left out are not run.
+    private void mix(String value) {
+        mix.clear();
+        for (String weight : value.split(",")) {
+            final String[] parts = weight.split(":");
+            mix.put(Operation.valueOf(parts[0].toUpperCase(Locale.ROOT)), Integer.parseInt(parts[1]));
+        }
+    }
+
+    List<String> applicationArguments() {
+        final List<String> arguments = new ArrayList<>();
+        application.forEach((name, value) -> arguments.add("--" + name + "=" + value));
+        return arguments;
+    }
+
+}
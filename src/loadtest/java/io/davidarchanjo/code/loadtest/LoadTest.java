@@ -0,0 +1,175 @@
+package io.davidarchanjo.code.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.davidarchanjo.code.application.Application;
+import io.davidarchanjo.code.model.dto.AppDTO;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Starts the application on a random port, seeds it with {@code apps} apps through the bulk route, then drives
+ * the same mixed workload at {@code rate} requests per second against each endpoint family in turn, after
+ * warming them all up for {@code warmup}. Latencies are reported per operation and compared between the families,
+ * the percentile distributions are written as HdrHistogram {@code .hgrm} files under {@code output}, and the
+ * process exits with status 1 when a family breaches the latency or error rate objectives.
+ * <p>
+ * Run through {@code mvn -Ploadtest verify -Dloadtest.args="rate=500 duration=60s"}; see {@link LoadSettings}.
+ */
+public final class LoadTest {
+
+    private static final int SEED_CHUNK = 500;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        final LoadSettings settings = LoadSettings.parse(args);
+        final ConfigurableApplicationContext context = start(settings);
+        final ConnectionProvider connections = ConnectionProvider.builder("loadtest")
+            .maxConnections(settings.getConnections())
+            .pendingAcquireMaxCount(-1)
+            .build();
+        final List<String> breaches = new ArrayList<>();
+        try {
+            final WebClient client = WebClient.builder()
+                .baseUrl("http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port"))
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections).responseTimeout(Duration.ofSeconds(30))))
+                .build();
+            final List<AppDTO> seeded = seed(client, settings.getApps());
+            System.out.printf("%nSeeded %d apps; %d requests/s, mix %s%n", seeded.size(), settings.getRate(), settings.getMix());
+
+            final OpenLoopDriver driver = new OpenLoopDriver(client, settings, seeded);
+            // Every family is warmed up before any is measured, as most of the code compiled is shared between them.
+            for (String family : settings.getFamilies()) {
+                driver.run(family, settings.getWarmup());
+            }
+            final Map<String, OpenLoopDriver.Results> results = new LinkedHashMap<>();
+            for (String family : settings.getFamilies()) {
+                results.put(family, driver.run(family, settings.getDuration()));
+            }
+
+            Files.createDirectories(settings.getOutput());
+            for (Map.Entry<String, OpenLoopDriver.Results> o : results.entrySet()) {
+                breaches.addAll(report(o.getKey(), o.getValue(), settings));
+            }
+        } finally {
+            connections.dispose();
+            context.close();
+        }
+
+        if (!breaches.isEmpty()) {
+            System.out.printf("%nObjectives breached:%n");
+            breaches.forEach(o -> System.out.println("  " + o));
+            System.exit(1);
+        }
+        System.out.printf("%nAll objectives met%n");
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext start(LoadSettings settings) {
+        // Set before starting, as the restart decides by itself, and would run this main method again.
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        final Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("logging.level.root", "WARN");
+        properties.put("spring.main.banner-mode", "off");
+        // Every request comes from the same client, which the rate limiter would soon hold back.
+        properties.put("app.rate-limit.enabled", "false");
+        properties.putAll(settings.getApplication());
+
+        // Passed as command-line arguments, as default properties would lose to those set in application.yml.
+        return new SpringApplicationBuilder(Application.class)
+            .web(WebApplicationType.REACTIVE)
+            .run(properties.entrySet().stream().map(o -> "--" + o.getKey() + "=" + o.getValue()).toArray(String[]::new));
+    }
+
+    private static List<AppDTO> seed(WebClient client, int apps) {
+        return Flux.range(0, apps)
+            .map(i -> new AppDTO("Seed " + i, "1." + (i % 10) + "." + i, "Author " + (i % 100)))
+            .buffer(SEED_CHUNK)
+            .concatMap(chunk -> client.post().uri("/api/functional/apps/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(chunk)
+                .retrieve()
+                .bodyToFlux(JsonNode.class))
+            .filter(o -> o.path("status").asInt() == 201)
+            .map(o -> {
+                final JsonNode app = o.path("app");
+                final AppDTO dto = new AppDTO(app.path("appName").asText(), app.path("appVersion").asText(), app.path("devName").asText());
+                dto.setId(app.path("id").asLong());
+                return dto;
+            })
+            .collectList()
+            .block();
+    }
+
+    // Prints the latencies of a family per operation and overall, writes their distributions, and answers
+    // the objectives the overall ones breach.
+    private static List<String> report(String family, OpenLoopDriver.Results results, LoadSettings settings) throws IOException {
+        final Histogram all = new Histogram(3);
+        long errors = results.unanswered();
+        final double seconds = results.elapsed().toNanos() / 1e9;
+        System.out.printf("%n%s: %.1f s%n", family, seconds);
+        System.out.printf("  %-8s %9s %7s %9s %9s %9s %9s %15s%n", "", "count", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "p99 sent ms");
+        for (Operation operation : settings.getMix().keySet()) {
+            final Histogram histogram = results.corrected(operation);
+            all.add(histogram);
+            errors += results.errors(operation);
+            System.out.printf("  %-8s %9d %7d %9.2f %9.2f %9.2f %9.2f %15.2f%n", operation, histogram.getTotalCount(), results.errors(operation),
+                millis(histogram, 50), millis(histogram, 99), millis(histogram, 99.9), histogram.getMaxValue() / 1000.0,
+                millis(results.uncorrected(operation), 99));
+            write(histogram, settings, family + "-" + operation.name().toLowerCase(Locale.ROOT));
+        }
+        write(all, settings, family);
+
+        final long total = all.getTotalCount() + errors;
+        final double errorRate = total == 0 ? 0 : (double) errors / total;
+        System.out.printf("  %-8s %9d %7d %9.2f %9.2f %9.2f %9.2f   %.0f requests/s%n", "ALL", all.getTotalCount(), errors,
+            millis(all, 50), millis(all, 99), millis(all, 99.9), all.getMaxValue() / 1000.0, all.getTotalCount() / seconds);
+
+        final List<String> breaches = new ArrayList<>();
+        check(breaches, family, "p50", millis(all, 50), settings.getSloP50());
+        check(breaches, family, "p99", millis(all, 99), settings.getSloP99());
+        check(breaches, family, "p99.9", millis(all, 99.9), settings.getSloP999());
+        if (errorRate > settings.getSloErrors()) {
+            breaches.add(String.format("%s error rate %.4f > %.4f", family, errorRate, settings.getSloErrors()));
+        }
+        return breaches;
+    }
+
+    private static void check(List<String> breaches, String family, String percentile, double millis, Duration objective) {
+        if (millis > objective.toNanos() / 1e6) {
+            breaches.add(String.format("%s %s %.2f ms > %d ms", family, percentile, millis, objective.toMillis()));
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static void write(Histogram histogram, LoadSettings settings, String name) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(settings.getOutput().resolve(name + ".hgrm")))) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+}
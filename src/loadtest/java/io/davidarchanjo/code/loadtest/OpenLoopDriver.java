@@ -0,0 +1,173 @@
+package io.davidarchanjo.code.loadtest;
+
+import io.davidarchanjo.code.model.dto.AppDTO;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Sends requests at a constant arrival rate whatever the time the earlier ones take, as independent clients
+ * do: an open model. Each request is timed from when it was due to be sent rather than from when it went out,
+ * so that the time spent behind a stall, be it of the sending thread or waiting for a connection, shows in
+ * the latencies instead of being omitted (coordinated omission); the time from sending is kept as well, for
+ * comparison. Requests beyond {@code max-in-flight} outstanding are not sent and count as errors, as do
+ * those left unanswered once the run is over.
+ */
+final class OpenLoopDriver {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final WebClient client;
+    private final LoadSettings settings;
+    private final List<AppDTO> seeded;
+    private final Random random;
+    private final Operation[] weighted;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private long created;
+
+    OpenLoopDriver(WebClient client, LoadSettings settings, List<AppDTO> seeded) {
+        this.client = client;
+        this.settings = settings;
+        this.seeded = seeded;
+        this.random = new Random(settings.getSeed());
+        this.weighted = settings.getMix().entrySet().stream()
+            .flatMap(o -> Stream.generate(o::getKey).limit(o.getValue()))
+            .toArray(Operation[]::new);
+    }
+
+    Results run(String family, Duration length) {
+        final Results results = new Results();
+        final String path = "/api/" + family + "/apps";
+        final long interval = TimeUnit.SECONDS.toNanos(1) / settings.getRate();
+        final long start = System.nanoTime();
+        final long end = start + length.toNanos();
+        for (long due = start; due < end; due += interval) {
+            for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                LockSupport.parkNanos(wait);
+            }
+            send(path, weighted[random.nextInt(weighted.length)], due, results);
+        }
+
+        final long drained = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drained) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        results.close(System.nanoTime() - start, inFlight.get());
+        return results;
+    }
+
+    private void send(String path, Operation operation, long due, Results results) {
+        if (inFlight.incrementAndGet() > settings.getMaxInFlight()) {
+            inFlight.decrementAndGet();
+            results.failed(operation);
+            return;
+        }
+        final long sent = System.nanoTime();
+        request(path, operation).subscribe(
+            status -> {
+                inFlight.decrementAndGet();
+                if (status < 400) {
+                    results.completed(operation, System.nanoTime(), due, sent);
+                } else {
+                    results.failed(operation);
+                }
+            },
+            e -> {
+                inFlight.decrementAndGet();
+                results.failed(operation);
+            });
+    }
+
+    private Mono<Integer> request(String path, Operation operation) {
+        final AppDTO app = seeded.get(random.nextInt(seeded.size()));
+        final WebClient.RequestHeadersSpec<?> spec = switch (operation) {
+            case GET -> client.get().uri(path + "/{id}", app.getId());
+            case PAGE -> client.get().uri(path + "?after={after}&limit=20", app.getId());
+            case SEARCH -> client.get().uri(path + "/search?devName={author}&limit=20", app.getAuthor());
+            case CREATE -> client.post().uri(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new AppDTO("Load " + (++created), "1.0.0", "Load"));
+            case UPDATE -> client.put().uri(path + "/{id}", app.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new AppDTO(app.getName(), app.getVersion(), "Author " + random.nextInt(100)));
+        };
+        return spec.exchangeToMono(o -> o.releaseBody().thenReturn(o.rawStatusCode()));
+    }
+
+    /**
+     * Latencies per operation, in microseconds, and the count of failed requests.
+     */
+    static final class Results {
+
+        private final Map<Operation, Histogram> corrected = new EnumMap<>(Operation.class);
+        private final Map<Operation, Histogram> uncorrected = new EnumMap<>(Operation.class);
+        private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+        private volatile boolean closed;
+        private long elapsedNanos;
+        private long unanswered;
+
+        Results() {
+            for (Operation operation : Operation.values()) {
+                corrected.put(operation, new ConcurrentHistogram(HIGHEST_MICROS, 3));
+                uncorrected.put(operation, new ConcurrentHistogram(HIGHEST_MICROS, 3));
+                errors.put(operation, new AtomicLong());
+            }
+        }
+
+        private void completed(Operation operation, long now, long due, long sent) {
+            if (!closed) {
+                corrected.get(operation).recordValue(Math.min(HIGHEST_MICROS, (now - due) / 1000));
+                uncorrected.get(operation).recordValue(Math.min(HIGHEST_MICROS, (now - sent) / 1000));
+            }
+        }
+
+        private void failed(Operation operation) {
+            if (!closed) {
+                errors.get(operation).incrementAndGet();
+            }
+        }
+
+        // Requests still unanswered once the run is over are counted as failed, and late answers ignored.
+        private void close(long elapsedNanos, int unanswered) {
+            closed = true;
+            this.elapsedNanos = elapsedNanos;
+            this.unanswered = unanswered;
+        }
+
+        Histogram corrected(Operation operation) {
+            return corrected.get(operation);
+        }
+
+        Histogram uncorrected(Operation operation) {
+            return uncorrected.get(operation);
+        }
+
+        long errors(Operation operation) {
+            return errors.get(operation).get();
+        }
+
+        long unanswered() {
+            return unanswered;
+        }
+
+        Duration elapsed() {
+            return Duration.ofNanos(elapsedNanos);
+        }
+
+    }
+
+}
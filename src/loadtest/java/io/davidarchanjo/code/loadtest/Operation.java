@@ -0,0 +1,9 @@
+package io.davidarchanjo.code.loadtest;
+
+/**
+ * Requests making up the workload: reading an app by id, a page of the listing or of a search by author,
+ * creating an app and replacing one.
+ */
+enum Operation {
+    GET, PAGE, SEARCH, CREATE, UPDATE
+}
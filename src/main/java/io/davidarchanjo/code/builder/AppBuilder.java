@@ -2,26 +2,23 @@ package io.davidarchanjo.code.builder;
 
 import io.davidarchanjo.code.model.domain.App;
 import io.davidarchanjo.code.model.dto.AppDTO;
-import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
 @Component
-@RequiredArgsConstructor
 public class AppBuilder {
 
-    private final ModelMapper modelMapper;
-
     public AppDTO build(App obj) {
-        return modelMapper.map(obj, AppDTO.class);
+        final AppDTO dto = new AppDTO(obj.getName(), obj.getVersion(), obj.getAuthor());
+        dto.setId(obj.getId());
+        dto.setRevision(obj.getRevision());
+        return dto;
     }
     
     public App build(AppDTO obj) {
-        return modelMapper.map(obj, App.class);
-    }
-
-    public App build(AppDTO dto, App app) {
-        modelMapper.map(dto, app);
+        final App app = new App(obj.getId(), obj.getName(), obj.getAuthor(), obj.getVersion());
+        if (obj.getVersion() != null) {
+            app.setVersionKey(Versions.sortKey(obj.getVersion()));
+        }
         return app;
     }
 
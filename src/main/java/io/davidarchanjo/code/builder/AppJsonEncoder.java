@@ -0,0 +1,241 @@
+package io.davidarchanjo.code.builder;
+
+import io.davidarchanjo.code.model.dto.AppDTO;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes apps to JSON and NDJSON responses, byte for byte as Jackson writes them, without going through it: the
+ * field names are encoded once, and the values are written straight into the response buffer, strings being
+ * escaped as they are copied. A stream of apps is written {@value #APPS_PER_BUFFER} to a buffer rather than one
+ * buffer each, so NDJSON is also flushed that many at a time. Other responses, such as the bulk results, are
+ * still written by Jackson.
+ */
+public class AppJsonEncoder implements HttpMessageEncoder<AppDTO> {
+
+    private static final List<MimeType> MIME_TYPES = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON);
+    private static final List<MediaType> STREAMING_MEDIA_TYPES = List.of(MediaType.APPLICATION_NDJSON);
+    private static final int APPS_PER_BUFFER = 64;
+    private static final int APP_SIZE_HINT = 96;
+
+    private static final byte[] ID = ascii("{\"id\":");
+    private static final byte[] NAME = ascii(",\"appName\":");
+    private static final byte[] AUTHOR = ascii(",\"devName\":");
+    private static final byte[] VERSION = ascii(",\"appVersion\":");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] MIN_LONG = ascii(String.valueOf(Long.MIN_VALUE));
+    private static final byte[] EMPTY_ARRAY = ascii("[]");
+    private static final byte[] HEX = ascii("0123456789ABCDEF");
+
+    // Per ASCII char, the letter of its two-char escape, 'u' for a six-char one by code, or 0 when written as is; the
+    // same escapes as Jackson, which leaves '/' and DEL alone.
+    private static final byte[] ESCAPES = new byte[128];
+
+    static {
+        for (int i = 0; i < 0x20; i++) {
+            ESCAPES[i] = 'u';
+        }
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\t'] = 't';
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\f'] = 'f';
+        ESCAPES['\r'] = 'r';
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
+        return elementType.toClass() == AppDTO.class && (mimeType == null || isSupported(mimeType));
+    }
+
+    @Override
+    public List<MimeType> getEncodableMimeTypes() {
+        return MIME_TYPES;
+    }
+
+    @Override
+    public List<MediaType> getStreamingMediaTypes() {
+        return STREAMING_MEDIA_TYPES;
+    }
+
+    // A single app is written on its own, with no separator, as Jackson does.
+    @Override
+    public Flux<DataBuffer> encode(Publisher<? extends AppDTO> inputStream, DataBufferFactory bufferFactory,
+                                   ResolvableType elementType, @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        if (inputStream instanceof Mono) {
+            return Mono.from(inputStream)
+                .map(o -> encodeValue(o, bufferFactory, elementType, mimeType, hints))
+                .flux();
+        }
+        final boolean ndjson = mimeType != null && MediaType.APPLICATION_NDJSON.equalsTypeAndSubtype(mimeType);
+        return Flux.defer(() -> {
+            final boolean[] empty = {true};
+            final Flux<DataBuffer> buffers = Flux.from(inputStream)
+                .buffer(APPS_PER_BUFFER)
+                .map(apps -> {
+                    final DataBuffer buffer = bufferFactory.allocateBuffer(apps.size() * APP_SIZE_HINT + 1);
+                    try {
+                        for (AppDTO app : apps) {
+                            if (!ndjson) {
+                                buffer.write(empty[0] ? (byte) '[' : (byte) ',');
+                                empty[0] = false;
+                            }
+                            write(buffer, app);
+                            if (ndjson) {
+                                buffer.write((byte) '\n');
+                            }
+                        }
+                    } catch (RuntimeException e) {
+                        DataBufferUtils.release(buffer);
+                        throw e;
+                    }
+                    return buffer;
+                });
+            return ndjson
+                ? buffers
+                : buffers.concatWith(Mono.fromSupplier(() -> empty[0] ? bufferFactory.wrap(EMPTY_ARRAY) : bufferFactory.wrap(new byte[]{']'})));
+        });
+    }
+
+    @Override
+    public DataBuffer encodeValue(AppDTO value, DataBufferFactory bufferFactory, ResolvableType valueType,
+                                  @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        final DataBuffer buffer = bufferFactory.allocateBuffer(APP_SIZE_HINT);
+        try {
+            write(buffer, value);
+        } catch (RuntimeException e) {
+            DataBufferUtils.release(buffer);
+            throw e;
+        }
+        return buffer;
+    }
+
+    private static void write(DataBuffer buffer, AppDTO app) {
+        buffer.write(ID);
+        writeNumber(buffer, app.getId());
+        buffer.write(NAME);
+        writeString(buffer, app.getName());
+        buffer.write(AUTHOR);
+        writeString(buffer, app.getAuthor());
+        buffer.write(VERSION);
+        writeString(buffer, app.getVersion());
+        buffer.write((byte) '}');
+    }
+
+    private static void writeNumber(DataBuffer buffer, Long value) {
+        if (value == null) {
+            buffer.write(NULL);
+            return;
+        }
+        long remaining = value;
+        if (remaining < 0) {
+            if (remaining == Long.MIN_VALUE) {
+                buffer.write(MIN_LONG);
+                return;
+            }
+            buffer.write((byte) '-');
+            remaining = -remaining;
+        }
+        long divisor = 1;
+        while (remaining / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            buffer.write((byte) ('0' + remaining / divisor % 10));
+        }
+    }
+
+    // Strings needing no escape, by far the most common, are handed to the buffer whole, which writes their
+    // UTF-8 encoding in place.
+    private static void writeString(DataBuffer buffer, String value) {
+        if (value == null) {
+            buffer.write(NULL);
+            return;
+        }
+        buffer.write((byte) '"');
+        if (needsEscaping(value)) {
+            writeEscaped(buffer, value);
+        } else {
+            buffer.write(value, StandardCharsets.UTF_8);
+        }
+        buffer.write((byte) '"');
+    }
+
+    private static boolean needsEscaping(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if ((c < 0x80 && ESCAPES[c] != 0) || Character.isSurrogate(c)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Surrogates are escaped one by one, even when they make a valid pair, as Jackson does.
+    private static void writeEscaped(DataBuffer buffer, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                final byte escape = ESCAPES[c];
+                if (escape == 0) {
+                    buffer.write((byte) c);
+                } else if (escape == 'u') {
+                    writeUnicodeEscape(buffer, c);
+                } else {
+                    buffer.write((byte) '\\');
+                    buffer.write(escape);
+                }
+            } else if (c < 0x800) {
+                buffer.write((byte) (0xC0 | c >> 6));
+                buffer.write((byte) (0x80 | c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                writeUnicodeEscape(buffer, c);
+            } else {
+                buffer.write((byte) (0xE0 | c >> 12));
+                buffer.write((byte) (0x80 | c >> 6 & 0x3F));
+                buffer.write((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    private static void writeUnicodeEscape(DataBuffer buffer, char c) {
+        buffer.write((byte) '\\');
+        buffer.write((byte) 'u');
+        buffer.write(HEX[c >> 12 & 0xF]);
+        buffer.write(HEX[c >> 8 & 0xF]);
+        buffer.write(HEX[c >> 4 & 0xF]);
+        buffer.write(HEX[c & 0xF]);
+    }
+
+    // Only UTF-8, the charset of JSON, is written; a request for any other is left to Jackson.
+    private static boolean isSupported(MimeType mimeType) {
+        if (mimeType.getCharset() != null && !StandardCharsets.UTF_8.equals(mimeType.getCharset())) {
+            return false;
+        }
+        for (MimeType supported : MIME_TYPES) {
+            if (supported.isCompatibleWith(mimeType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+}
@@ -0,0 +1,287 @@
+package io.davidarchanjo.code.builder;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.davidarchanjo.code.config.AppProperties;
+import io.davidarchanjo.code.exception.AppInvalidInputException;
+import io.davidarchanjo.code.model.dto.AppDTO;
+import io.davidarchanjo.code.model.dto.AppTransferDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Converts the app catalogue to and from its NDJSON and CSV export formats. Encoding writes each chunk of apps
+ * into a single buffer and decoding parses the body record by record as it arrives, so neither side ever holds
+ * more than a chunk, whatever the size of the catalogue.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class AppTransferCodec {
+
+    private static final List<String> COLUMNS = List.of("id", "appName", "devName", "appVersion", "revision");
+    private static final byte[] CSV_HEADER = (String.join(",", COLUMNS) + "\n").getBytes(StandardCharsets.UTF_8);
+    private static final int ROW_SIZE_HINT = 96;
+
+    private static final StringDecoder LINES = StringDecoder.allMimeTypes();
+    private static final StringDecoder CSV_LINES = StringDecoder.allMimeTypes(StringDecoder.DEFAULT_DELIMITERS, false);
+    private static final ResolvableType STRING = ResolvableType.forClass(String.class);
+
+    private final ObjectMapper objectMapper;
+    private final AppProperties properties;
+
+    @Getter
+    @AllArgsConstructor
+    public enum Format {
+
+        NDJSON(MediaType.APPLICATION_NDJSON),
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8));
+
+        private MediaType mediaType;
+
+        public static Format of(List<MediaType> mediaTypes) {
+            return mediaTypes.stream().anyMatch(CSV.mediaType::equalsTypeAndSubtype) ? CSV : NDJSON;
+        }
+
+    }
+
+    public Flux<DataBuffer> encode(Flux<AppDTO> apps, Format format, DataBufferFactory bufferFactory) {
+        return Flux.defer(() -> {
+            final long start = System.nanoTime();
+            final AtomicLong rows = new AtomicLong();
+            final Flux<DataBuffer> chunks = apps.buffer(properties.getBatch().getSize())
+                .doOnNext(o -> rows.addAndGet(o.size()))
+                .map(o -> format == Format.CSV ? csv(o, bufferFactory) : ndjson(o, bufferFactory));
+            return (format == Format.CSV ? chunks.startWith(Mono.fromSupplier(() -> bufferFactory.wrap(CSV_HEADER))) : chunks)
+                .doOnComplete(() -> {
+                    final AppTransferDTO summary = summary(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), rows.get());
+                    log.info("Exported {} apps as {} in {} ms ({} rows/s)", summary.getRows(), format, summary.getMillis(), summary.getRowsPerSecond());
+                });
+        });
+    }
+
+    public Flux<AppDTO> decode(Flux<DataBuffer> body, Format format) {
+        return format == Format.CSV
+            ? records(CSV_LINES.decode(body, STRING, null, null))
+                .filter(o -> !o.isBlank())
+                .switchOnFirst((header, all) -> {
+                    final int[] columns = header.hasValue() ? columns(header.get()) : null;
+                    return all.skip(1).map(o -> csv(o, columns));
+                })
+            : LINES.decode(body, STRING, null, null)
+                .filter(o -> !o.isBlank())
+                .map(this::ndjson);
+    }
+
+    public static AppTransferDTO summary(long millis, long rows) {
+        return AppTransferDTO.builder()
+            .rows(rows)
+            .millis(millis)
+            .rowsPerSecond(rows * 1000 / Math.max(1, millis))
+            .build();
+    }
+
+    private DataBuffer ndjson(List<AppDTO> apps, DataBufferFactory bufferFactory) {
+        final DataBuffer buffer = bufferFactory.allocateBuffer(apps.size() * ROW_SIZE_HINT);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(buffer.asOutputStream())) {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            for (AppDTO app : apps) {
+                generator.writeStartObject();
+                generator.writeNumberField("id", app.getId());
+                generator.writeStringField("appName", app.getName());
+                generator.writeStringField("devName", app.getAuthor());
+                generator.writeStringField("appVersion", app.getVersion());
+                generator.writeNumberField("revision", app.getRevision());
+                generator.writeEndObject();
+            }
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            DataBufferUtils.release(buffer);
+            throw new UncheckedIOException(e);
+        }
+        return buffer;
+    }
+
+    private AppDTO ndjson(String line) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new AppInvalidInputException("Invalid line - {0}", line);
+            }
+            final AppDTO app = new AppDTO();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                final boolean isNull = parser.nextToken() == JsonToken.VALUE_NULL;
+                switch (field) {
+                    case "id" -> app.setId(isNull ? null : parser.getLongValue());
+                    case "appName" -> app.setName(isNull ? null : parser.getText());
+                    case "devName" -> app.setAuthor(isNull ? null : parser.getText());
+                    case "appVersion" -> app.setVersion(isNull ? null : parser.getText());
+                    case "revision" -> app.setRevision(isNull ? null : parser.getLongValue());
+                    default -> parser.skipChildren();
+                }
+            }
+            return app;
+        } catch (IOException e) {
+            throw new AppInvalidInputException("Invalid line - {0}", line);
+        }
+    }
+
+    private static DataBuffer csv(List<AppDTO> apps, DataBufferFactory bufferFactory) {
+        final DataBuffer buffer = bufferFactory.allocateBuffer(apps.size() * ROW_SIZE_HINT);
+        try (Writer writer = new OutputStreamWriter(buffer.asOutputStream(), StandardCharsets.UTF_8)) {
+            for (AppDTO app : apps) {
+                writer.write(String.valueOf(app.getId()));
+                writer.write(',');
+                writeCsv(writer, app.getName());
+                writer.write(',');
+                writeCsv(writer, app.getAuthor());
+                writer.write(',');
+                writeCsv(writer, app.getVersion());
+                writer.write(',');
+                writer.write(String.valueOf(app.getRevision()));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            DataBufferUtils.release(buffer);
+            throw new UncheckedIOException(e);
+        }
+        return buffer;
+    }
+
+    private static void writeCsv(Writer writer, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    // Joins the lines, delimiters included, until no quoted field is left open, as a quoted field may hold line
+    // breaks of its own; the record is then handed over without its trailing delimiter. A record left open at the
+    // end of the body, or growing past what a single line may hold, is handed over as is and rejected by fields.
+    private static Flux<String> records(Flux<String> lines) {
+        return Flux.defer(() -> {
+            final StringBuilder record = new StringBuilder();
+            final boolean[] quoted = {false};
+            return lines.<String>handle((line, sink) -> {
+                    record.append(line);
+                    for (int i = 0; i < line.length(); i++) {
+                        quoted[0] ^= line.charAt(i) == '"';
+                    }
+                    if (!quoted[0] || record.length() > CSV_LINES.getMaxInMemorySize()) {
+                        sink.next(stripDelimiter(record));
+                        record.setLength(0);
+                        quoted[0] = false;
+                    }
+                })
+                .concatWith(Mono.fromSupplier(() -> record.length() > 0 ? stripDelimiter(record) : null));
+        });
+    }
+
+    private static String stripDelimiter(CharSequence record) {
+        int end = record.length();
+        if (end > 0 && record.charAt(end - 1) == '\n') {
+            end--;
+        }
+        if (end > 0 && record.charAt(end - 1) == '\r') {
+            end--;
+        }
+        return record.subSequence(0, end).toString();
+    }
+
+    // Position of each known column in the header, or -1 when it is absent; unknown columns are ignored.
+    private static int[] columns(String header) {
+        final List<String> names = fields(header);
+        final int[] columns = new int[COLUMNS.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = names.indexOf(COLUMNS.get(i));
+        }
+        return columns;
+    }
+
+    private static AppDTO csv(String line, int[] columns) {
+        final List<String> fields = fields(line);
+        final AppDTO app = new AppDTO();
+        app.setId(number(field(fields, columns[0])));
+        app.setName(field(fields, columns[1]));
+        app.setAuthor(field(fields, columns[2]));
+        app.setVersion(field(fields, columns[3]));
+        app.setRevision(number(field(fields, columns[4])));
+        return app;
+    }
+
+    private static String field(List<String> fields, int column) {
+        return column < 0 || column >= fields.size() ? null : fields.get(column);
+    }
+
+    private static Long number(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new AppInvalidInputException("Invalid number - {0}", value);
+        }
+    }
+
+    // Fields are split on commas outside double quotes, with a doubled quote standing for a literal one; line breaks
+    // inside quotes are kept as they were written.
+    private static List<String> fields(String line) {
+        final List<String> fields = new ArrayList<>(COLUMNS.size());
+        final StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new AppInvalidInputException("Unterminated quoted field - {0}", line);
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+}
@@ -0,0 +1,38 @@
+package io.davidarchanjo.code.builder;
+
+import io.davidarchanjo.code.model.dto.AppChangeDTO;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.util.StringUtils;
+
+public final class ChangeEvents {
+
+    public static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private static final long UNKNOWN = -1L;
+
+    private ChangeEvents() {
+    }
+
+    public static ServerSentEvent<AppChangeDTO> of(AppChangeDTO change) {
+        return ServerSentEvent.builder(change)
+            .id(String.valueOf(change.getId()))
+            .event(change.getType().name())
+            .build();
+    }
+
+    /**
+     * Event id a {@code Last-Event-ID} header resumes after, or {@code null} when the header is absent.
+     * Malformed ids resolve to one no event can have, so the client is told to reset.
+     */
+    public static Long lastEventId(String header) {
+        if (!StringUtils.hasText(header)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return UNKNOWN;
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+package io.davidarchanjo.code.builder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public final class Cursors {
+
+    private static final char SEPARATOR = '\n';
+
+    private Cursors() {
+    }
+
+    /**
+     * Opaque token for the position right after the given row, only valid for the sort it was issued for.
+     */
+    public static String of(String sort, long id, String key) {
+        final String position = sort + SEPARATOR + id + SEPARATOR + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Position a cursor points after, or {@code null} when it is malformed or was issued for another sort.
+     */
+    public static Position position(String cursor, String sort) {
+        final String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(String.valueOf(SEPARATOR), 3);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (parts.length != 3 || !parts[0].equals(sort)) {
+            return null;
+        }
+        try {
+            return new Position(Long.parseLong(parts[1]), parts[2]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public record Position(long id, String key) {
+    }
+
+}
@@ -0,0 +1,56 @@
+package io.davidarchanjo.code.builder;
+
+import io.davidarchanjo.code.model.dto.AppDTO;
+import org.springframework.util.StringUtils;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public final class ETags {
+
+    /**
+     * Revision no row can have, for the preconditions that can only fail.
+     */
+    public static final long NO_MATCH = -1L;
+
+    private ETags() {
+    }
+
+    public static String of(AppDTO dto) {
+        return "\"" + dto.getRevision() + "\"";
+    }
+
+    /**
+     * Revisions an {@code If-Match} header accepts, or {@code null} when the header is absent or lists {@code *}.
+     * Weak or malformed tags accept no revision, so a header made only of those, or of no tag at all, leaves
+     * none and the precondition fails.
+     */
+    public static Set<Long> revisions(String ifMatch) {
+        if (!StringUtils.hasText(ifMatch)) {
+            return null;
+        }
+        final Set<Long> revisions = new HashSet<>();
+        for (String tag : StringUtils.tokenizeToStringArray(ifMatch, ",")) {
+            if ("*".equals(tag)) {
+                return null;
+            }
+            final Long revision = revision(tag);
+            if (revision != null) {
+                revisions.add(revision);
+            }
+        }
+        return revisions;
+    }
+
+    private static Long revision(String tag) {
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            return null;
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+package io.davidarchanjo.code.builder;
+
+import io.davidarchanjo.code.config.AppProperties;
+import io.davidarchanjo.code.exception.AppInvalidInputException;
+import io.davidarchanjo.code.model.domain.App;
+import io.davidarchanjo.code.model.domain.AppSearchCriteria;
+import io.davidarchanjo.code.model.domain.AppSort;
+import io.davidarchanjo.code.model.dto.AppDTO;
+import io.davidarchanjo.code.model.dto.AppPageDTO;
+import io.davidarchanjo.code.model.dto.AppSearchDTO;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Turns listing and search requests into what the stores are asked for, and what they answer into pages, the
+ * same way for the reactive and the blocking services. Each page is read one app beyond its size, which tells
+ * whether another one follows without counting.
+ */
+public final class Pages {
+
+    private Pages() {
+    }
+
+    /**
+     * Size of the page asked for, within the configured bounds, or the default one when none is asked for.
+     */
+    public static int size(Integer limit, AppProperties.Pagination pagination) {
+        return limit == null
+            ? pagination.getDefaultLimit()
+            : Math.max(1, Math.min(limit, pagination.getMaxLimit()));
+    }
+
+    /**
+     * Criteria of a search, sorted by id unless it asks otherwise and starting after its cursor, if any.
+     *
+     * @throws AppInvalidInputException when the sort is unknown, or the cursor malformed or issued for another sort
+     */
+    public static AppSearchCriteria criteria(AppSearchDTO search) {
+        final String sortParameter = search.getSort() == null ? AppSort.ID.getParameter() : search.getSort();
+        final boolean descending = sortParameter.startsWith("-");
+        final Optional<AppSort> sort = AppSort.of(descending ? sortParameter.substring(1) : sortParameter);
+        if (sort.isEmpty()) {
+            throw new AppInvalidInputException("Unknown sort - {0}", sortParameter);
+        }
+
+        final AppSearchCriteria.AppSearchCriteriaBuilder criteria = AppSearchCriteria.builder()
+            .namePrefix(search.getName())
+            .author(search.getAuthor())
+            .minVersionKey(search.getMinVersion() == null ? null : Versions.sortKey(search.getMinVersion()))
+            .maxVersionKey(search.getMaxVersion() == null ? null : Versions.sortKey(search.getMaxVersion()))
+            .sort(sort.get())
+            .descending(descending);
+        if (search.getCursor() != null) {
+            final Cursors.Position position = Cursors.position(search.getCursor(), sortParameter);
+            if (position == null) {
+                throw new AppInvalidInputException("Invalid cursor - {0}", search.getCursor());
+            }
+            criteria.afterId(position.id()).afterKey(position.key());
+        }
+        return criteria.build();
+    }
+
+    /**
+     * Page of a listing by id, out of the apps read for a page of {@code size}, pointing after its last id.
+     */
+    public static AppPageDTO afterId(List<AppDTO> apps, int size) {
+        return apps.size() > size
+            ? AppPageDTO.builder().content(apps.subList(0, size)).next(String.valueOf(apps.get(size - 1).getId())).build()
+            : AppPageDTO.builder().content(apps).build();
+    }
+
+    /**
+     * Page of a search, out of the apps read for a page of {@code size}, with the cursor after its last app.
+     */
+    public static AppPageDTO of(List<App> apps, int size, AppSearchCriteria criteria, Function<App, AppDTO> builder) {
+        final List<AppDTO> content = apps.stream().limit(size).map(builder).collect(Collectors.toList());
+        if (apps.size() <= size) {
+            return AppPageDTO.builder().content(content).build();
+        }
+        final App last = apps.get(size - 1);
+        final String sortParameter = (criteria.isDescending() ? "-" : "") + criteria.getSort().getParameter();
+        return AppPageDTO.builder()
+            .content(content)
+            .next(Cursors.of(sortParameter, last.getId(), criteria.getSort().getKey().apply(last)))
+            .build();
+    }
+
+}
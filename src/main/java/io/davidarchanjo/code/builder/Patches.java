@@ -0,0 +1,33 @@
+package io.davidarchanjo.code.builder;
+
+import io.davidarchanjo.code.model.dto.AppDTO;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.HashSet;
+import java.util.Set;
+
+public final class Patches {
+
+    private Patches() {
+    }
+
+    /**
+     * Constraints broken by the fields a partial update carries; those it leaves out keep their stored value,
+     * so they are not checked.
+     */
+    public static Set<ConstraintViolation<AppDTO>> violations(Validator validator, AppDTO dto) {
+        final Set<ConstraintViolation<AppDTO>> violations = new HashSet<>();
+        if (dto.getName() != null) {
+            violations.addAll(validator.validateProperty(dto, "name"));
+        }
+        if (dto.getAuthor() != null) {
+            violations.addAll(validator.validateProperty(dto, "author"));
+        }
+        if (dto.getVersion() != null) {
+            violations.addAll(validator.validateProperty(dto, "version"));
+        }
+        return violations;
+    }
+
+}
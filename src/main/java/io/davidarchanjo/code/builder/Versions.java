@@ -0,0 +1,42 @@
+package io.davidarchanjo.code.builder;
+
+public final class Versions {
+
+    private static final int NUMBER_WIDTH = 10;
+
+    private Versions() {
+    }
+
+    /**
+     * Key whose lexicographic order is the natural order of the version: every run of digits is left-padded
+     * with zeros, so {@code 1.10} sorts after {@code 1.9}, and everything else is kept as is.
+     */
+    public static String sortKey(String version) {
+        final StringBuilder key = new StringBuilder(version.length() + 3 * NUMBER_WIDTH);
+        int i = 0;
+        while (i < version.length()) {
+            if (!isDigit(version.charAt(i))) {
+                key.append(version.charAt(i++));
+                continue;
+            }
+            int end = i;
+            while (end < version.length() && isDigit(version.charAt(end))) {
+                end++;
+            }
+            while (i < end - 1 && version.charAt(i) == '0') {
+                i++;
+            }
+            for (int padding = end - i; padding < NUMBER_WIDTH; padding++) {
+                key.append('0');
+            }
+            key.append(version, i, end);
+            i = end;
+        }
+        return key.toString();
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+}
@@ -0,0 +1,318 @@
+package io.davidarchanjo.code.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app")
+public class AppProperties {
+
+    private final Store store = new Store();
+    private final Batch batch = new Batch();
+    private final Cache cache = new Cache();
+    private final Coalescing coalescing = new Coalescing();
+    private final Pagination pagination = new Pagination();
+    private final Errors errors = new Errors();
+    private final Changes changes = new Changes();
+    private final RateLimit rateLimit = new RateLimit();
+    private final Shedding shedding = new Shedding();
+    private final WriteBehind writeBehind = new WriteBehind();
+    private final Blocking blocking = new Blocking();
+    private final Json json = new Json();
+
+    @Data
+    public static class Store {
+
+        /**
+         * Where the apps are kept: the R2DBC database, or an in-process store that is emptied on every restart.
+         */
+        private Type type = Type.R2DBC;
+
+        /**
+         * Whether the database schema is applied in the background while the application starts, instead of
+         * holding the startup until it is done; calls to the store wait for it.
+         */
+        private boolean deferredSchema = false;
+
+        /**
+         * Number of ids reserved from the store at a time, then handed out to new apps without going back to it.
+         * Larger blocks mean fewer round trips, and larger gaps left by those unused when an instance stops.
+         */
+        private int idBlockSize = 100;
+
+        public enum Type {
+            R2DBC, MEMORY
+        }
+
+    }
+
+    @Data
+    public static class Batch {
+
+        /**
+         * Number of items grouped into a single uniqueness check and batched statement.
+         */
+        private int size = 500;
+
+    }
+
+    @Data
+    public static class Cache {
+
+        /**
+         * Whether reads by id and by name/version are served through the read-through cache.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of entries kept by each cache before W-TinyLFU eviction kicks in.
+         */
+        private long maximumSize = 10_000;
+
+        /**
+         * Time after which a cached entry is reloaded from the database.
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+        /**
+         * How the other instances sharing the store learn which of their entries the writes made here left
+         * stale: not at all, or in process for those started in the same JVM. Declaring an
+         * {@code AppInvalidationBus} bean plugs in any other transport.
+         */
+        private Invalidation invalidation = Invalidation.NONE;
+
+        public enum Invalidation {
+            NONE, LOOPBACK
+        }
+
+    }
+
+    @Data
+    public static class Coalescing {
+
+        /**
+         * Whether concurrent identical reads share a single lookup; the cache already does so for its own misses.
+         */
+        private boolean enabled = true;
+
+    }
+
+    @Data
+    public static class Pagination {
+
+        /**
+         * Page size used when a listing request does not ask for one.
+         */
+        private int defaultLimit = 100;
+
+        /**
+         * Largest page a client may ask for; also the chunk size used when streaming the whole table.
+         */
+        private int maxLimit = 1000;
+
+    }
+
+    @Data
+    public static class Errors {
+
+        /**
+         * Minimum time between two log lines for the same kind of client error; the ones in between are only counted.
+         */
+        private Duration logInterval = Duration.ofSeconds(1);
+
+    }
+
+    @Data
+    public static class Changes {
+
+        /**
+         * Number of latest change events kept so that a reconnecting client can resume after the last one it saw.
+         */
+        private int historySize = 4096;
+
+        /**
+         * Events buffered per subscriber; one that falls further behind has its stream completed and must resume.
+         * Kept above the batch size, as a bulk request publishes a whole chunk at once.
+         */
+        private int bufferSize = 1024;
+
+    }
+
+    @Data
+    public static class RateLimit {
+
+        /**
+         * Whether every client is held to a token bucket per endpoint family.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Whether the client is told apart by {@code client-header} rather than its remote address; only to be
+         * turned on behind a trusted proxy that sets the header itself, as callers could otherwise pick their own.
+         */
+        private boolean trustClientHeader = false;
+
+        /**
+         * Header identifying the client, set by the trusted proxy; the remote address is used when it is absent.
+         */
+        private String clientHeader = "X-Client-Id";
+
+        /**
+         * Tokens taken by the routes reading or writing the whole catalogue or a batch, instead of one.
+         */
+        private int bulkCost = 10;
+
+        /**
+         * Number of clients whose buckets are kept; the least recently seen ones are dropped beyond it.
+         */
+        private long maximumClients = 100_000;
+
+        /**
+         * Time after which the bucket of a silent client is dropped; kept above the time a bucket takes to refill,
+         * so that dropping it gives nothing back.
+         */
+        private Duration idleTimeout = Duration.ofMinutes(10);
+
+        private final Budget functional = new Budget();
+        private final Budget annotation = new Budget();
+        private final Budget blocking = new Budget();
+
+        @Data
+        public static class Budget {
+
+            /**
+             * Largest burst a client may send at once.
+             */
+            private int capacity = 200;
+
+            /**
+             * Tokens given back to a client every second.
+             */
+            private int refillPerSecond = 100;
+
+        }
+
+    }
+
+    @Data
+    public static class Shedding {
+
+        /**
+         * Whether requests beyond the concurrency limit are queued and shed once they would miss the latency budget.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Requests served at once; the ones beyond wait in line. Kept close to the connection pool size, as
+         * requests past it would only wait for a connection instead.
+         */
+        private int maxConcurrency = 16;
+
+        /**
+         * Longest a request may wait in line, also the expected wait beyond which it is refused on arrival.
+         */
+        private Duration latencyBudget = Duration.ofMillis(500);
+
+    }
+
+    @Data
+    public static class WriteBehind {
+
+        /**
+         * Whether creations and unconditional updates are queued and stored in groups instead of one by one.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Writes the queue holds; the ones beyond are refused as overloaded until it drains.
+         */
+        private int capacity = 10_000;
+
+        /**
+         * Queued writes that trigger a flush straight away, and the most stored in one group.
+         */
+        private int flushSize = 500;
+
+        /**
+         * Longest a write waits in the queue while fewer than flush-size are queued.
+         */
+        private Duration flushInterval = Duration.ofMillis(20);
+
+        /**
+         * When an update is acknowledged: once stored, or once queued, at the risk of losing it should the
+         * instance stop abruptly. Creations are always acknowledged once stored.
+         */
+        private Ack ack = Ack.FLUSH;
+
+        public enum Ack {
+            FLUSH, ENQUEUE
+        }
+
+    }
+
+    @Data
+    public static class Blocking {
+
+        /**
+         * Whether the single operations are also served under {@code /api/blocking/apps}, as imperative code over
+         * JDBC running on threads it may block. Needs the R2DBC store, whose database it shares.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Threads the blocking calls run on: virtual ones when the runtime has them, platform ones otherwise,
+         * or either one forced.
+         */
+        private Threads threads = Threads.AUTO;
+
+        /**
+         * Platform threads running blocking calls at once; the calls beyond wait for one. Virtual threads are
+         * started one per call, bounded by the connections alone.
+         */
+        private int maxThreads = 200;
+
+        /**
+         * Calls waiting for a platform thread; the ones beyond are refused as overloaded.
+         */
+        private int maxQueued = 10_000;
+
+        /**
+         * JDBC url of the database the R2DBC store keeps the apps in.
+         */
+        private String url = "jdbc:h2:mem:appdb;DB_CLOSE_DELAY=-1;QUERY_CACHE_SIZE=64";
+
+        private String username = "sa";
+
+        private String password = "";
+
+        /**
+         * Connections opened to the database at most; a call waits for one beyond them.
+         */
+        private int maxConnections = 10;
+
+        /**
+         * Longest a call waits for a connection before failing, as {@code spring.r2dbc.pool.max-acquire-time}
+         * bounds it for the reactive stack.
+         */
+        private Duration maxAcquireTime = Duration.ofSeconds(2);
+
+        public enum Threads {
+            AUTO, VIRTUAL, PLATFORM
+        }
+
+    }
+
+    @Data
+    public static class Json {
+
+        /**
+         * Whether apps are written to JSON and NDJSON responses by an encoder of their own, from field names
+         * encoded once, instead of by Jackson; the bytes written are the same.
+         */
+        private boolean preEncoded = true;
+
+    }
+
+}
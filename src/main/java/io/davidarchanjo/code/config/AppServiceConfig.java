@@ -0,0 +1,68 @@
+package io.davidarchanjo.code.config;
+
+import io.davidarchanjo.code.event.AppInvalidationBus;
+import io.davidarchanjo.code.event.LocalAppInvalidations;
+import io.davidarchanjo.code.event.LoopbackAppInvalidationBus;
+import io.davidarchanjo.code.service.AppService;
+import io.davidarchanjo.code.service.impl.AppServiceImpl;
+import io.davidarchanjo.code.service.impl.CachingAppService;
+import io.davidarchanjo.code.service.impl.CoalescingAppService;
+import io.davidarchanjo.code.service.impl.MeteredAppService;
+import io.davidarchanjo.code.service.impl.WriteBehindAppService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration(proxyBeanMethods = false)
+public class AppServiceConfig {
+
+    @Bean
+    @Primary
+    public AppService appService(AppServiceImpl appServiceImpl, ObjectProvider<WriteBehindAppService> writeBehindAppService,
+                                 ObjectProvider<AppInvalidationBus> invalidationBus,
+                                 ObjectProvider<LocalAppInvalidations> localInvalidations, AppProperties properties,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        AppService appService = appServiceImpl;
+        final WriteBehindAppService writeBehind = writeBehindAppService.getIfAvailable();
+        if (writeBehind != null) {
+            meterRegistry.ifAvailable(writeBehind::bindTo);
+            appService = writeBehind;
+        }
+        if (properties.getCoalescing().isEnabled()) {
+            final CoalescingAppService coalescingAppService = new CoalescingAppService(appService);
+            meterRegistry.ifAvailable(coalescingAppService::bindTo);
+            appService = coalescingAppService;
+        }
+        if (properties.getCache().isEnabled()) {
+            final CachingAppService cachingAppService = new CachingAppService(appService, properties.getCache(),
+                invalidationBus.getIfAvailable(), localInvalidations.getIfAvailable());
+            meterRegistry.ifAvailable(cachingAppService::bindTo);
+            appService = cachingAppService;
+        }
+        final MeterRegistry registry = meterRegistry.getIfAvailable();
+        return registry == null ? appService : new MeteredAppService(appService, registry);
+    }
+
+    // A bean of its own, innermost in the chain, so that what is still queued is flushed on shutdown.
+    @Bean
+    @ConditionalOnProperty(name = "app.write-behind.enabled", havingValue = "true")
+    public WriteBehindAppService writeBehindAppService(AppServiceImpl appServiceImpl, AppProperties properties,
+                                                       LocalAppInvalidations localAppInvalidations) {
+        return new WriteBehindAppService(appServiceImpl, properties.getWriteBehind(), localAppInvalidations);
+    }
+
+    @Bean
+    public LocalAppInvalidations localAppInvalidations() {
+        return new LocalAppInvalidations();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.invalidation", havingValue = "loopback")
+    public LoopbackAppInvalidationBus loopbackAppInvalidationBus() {
+        return new LoopbackAppInvalidationBus();
+    }
+
+}
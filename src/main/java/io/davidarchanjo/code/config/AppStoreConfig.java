@@ -0,0 +1,76 @@
+package io.davidarchanjo.code.config;
+
+import io.davidarchanjo.code.repository.AppRepository;
+import io.davidarchanjo.code.repository.AppStore;
+import io.davidarchanjo.code.repository.impl.InMemoryAppStore;
+import io.davidarchanjo.code.repository.impl.DeferredSchemaAppStore;
+import io.davidarchanjo.code.repository.impl.MeteredAppStore;
+import io.davidarchanjo.code.repository.impl.R2dbcAppStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.r2dbc.connection.init.CompositeDatabasePopulator;
+import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
+import org.springframework.r2dbc.connection.init.DatabasePopulator;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Picks the {@link AppStore} after {@code app.store.type}. The repositories and the schema are only set up for
+ * the database one, so that the {@code memory} profile can leave R2DBC out altogether. The schema is applied
+ * during startup, or alongside it when {@code app.store.deferred-schema} is set. With a meter registry, each call
+ * to the store is timed, leaving out any wait for the schema.
+ */
+@Configuration(proxyBeanMethods = false)
+public class AppStoreConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.store.type", havingValue = "memory")
+    public AppStore inMemoryAppStore(ObjectProvider<MeterRegistry> meterRegistry) {
+        return metered(new InMemoryAppStore(), meterRegistry);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "app.store.type", havingValue = "r2dbc", matchIfMissing = true)
+    @EnableR2dbcRepositories(basePackages = "io.davidarchanjo.code.repository")
+    public static class R2dbcStoreConfig {
+
+        @Bean
+        public AppStore r2dbcAppStore(AppRepository repository, TransactionalOperator transactionalOperator,
+                                      ConnectionFactory connectionFactory, AppProperties properties,
+                                      ObjectProvider<MeterRegistry> meterRegistry) {
+            final AppStore store = metered(new R2dbcAppStore(repository, transactionalOperator), meterRegistry);
+            return properties.getStore().isDeferredSchema()
+                ? new DeferredSchemaAppStore(store, databasePopulator().populate(connectionFactory))
+                : store;
+        }
+
+        @Bean
+        @ConditionalOnProperty(name = "app.store.deferred-schema", havingValue = "false", matchIfMissing = true)
+        public ConnectionFactoryInitializer databaseInitializer(ConnectionFactory connectionFactory) {
+            final ConnectionFactoryInitializer cfi = new ConnectionFactoryInitializer();
+            cfi.setConnectionFactory(connectionFactory);
+            cfi.setDatabasePopulator(databasePopulator());
+            return cfi;
+        }
+
+        private static DatabasePopulator databasePopulator() {
+            final CompositeDatabasePopulator cdp = new CompositeDatabasePopulator();
+            cdp.addPopulators(new ResourceDatabasePopulator(new ClassPathResource("schema/schema.sql")));
+            cdp.addPopulators(new ResourceDatabasePopulator(new ClassPathResource("schema/data.sql")));
+            return cdp;
+        }
+
+    }
+
+    private static AppStore metered(AppStore store, ObjectProvider<MeterRegistry> meterRegistry) {
+        final MeterRegistry registry = meterRegistry.getIfAvailable();
+        return registry == null ? store : new MeteredAppStore(store, registry);
+    }
+
+}
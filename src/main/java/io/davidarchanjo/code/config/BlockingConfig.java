@@ -0,0 +1,72 @@
+package io.davidarchanjo.code.config;
+
+import io.davidarchanjo.code.builder.AppBuilder;
+import io.davidarchanjo.code.event.AppChangeStream;
+import io.davidarchanjo.code.event.LocalAppInvalidations;
+import io.davidarchanjo.code.repository.BlockingAppStore;
+import io.davidarchanjo.code.repository.impl.JdbcAppStore;
+import io.davidarchanjo.code.service.BlockingAppService;
+import io.davidarchanjo.code.service.impl.BlockingAppServiceImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Sets up the blocking execution mode when {@code app.blocking.enabled} is set: the JDBC store over the database
+ * of the R2DBC one, the imperative service, and the threads it runs on. Virtual threads are looked up at
+ * runtime, as the build targets Java 17, which has none; platform threads from a bounded pool stand in for
+ * them until the application runs on a Java that has them.
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.blocking.enabled", havingValue = "true")
+public class BlockingConfig {
+
+    @Bean
+    public BlockingAppStore jdbcAppStore(AppProperties properties) {
+        if (properties.getStore().getType() != AppProperties.Store.Type.R2DBC) {
+            throw new IllegalStateException("The blocking execution mode needs the r2dbc store, not " + properties.getStore().getType());
+        }
+        final AppProperties.Blocking blocking = properties.getBlocking();
+        return new JdbcAppStore(blocking.getUrl(), blocking.getUsername(), blocking.getPassword(),
+            blocking.getMaxConnections(), blocking.getMaxAcquireTime());
+    }
+
+    @Bean
+    public BlockingAppService blockingAppService(AppBuilder builder, BlockingAppStore jdbcAppStore, AppProperties properties,
+                                                 AppChangeStream changes, LocalAppInvalidations localAppInvalidations) {
+        return new BlockingAppServiceImpl(builder, jdbcAppStore, properties, changes, localAppInvalidations);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler blockingScheduler(AppProperties properties) {
+        final AppProperties.Blocking blocking = properties.getBlocking();
+        final ExecutorService virtualThreads = blocking.getThreads() == AppProperties.Blocking.Threads.PLATFORM ? null : virtualThreads();
+        if (virtualThreads != null) {
+            log.info("Blocking calls run on virtual threads");
+            return Schedulers.fromExecutorService(virtualThreads, "blocking");
+        }
+        if (blocking.getThreads() == AppProperties.Blocking.Threads.VIRTUAL) {
+            throw new IllegalStateException("Virtual threads are not available on Java " + Runtime.version());
+        }
+        log.info("Blocking calls run on up to {} platform threads", blocking.getMaxThreads());
+        return Schedulers.newBoundedElastic(blocking.getMaxThreads(), blocking.getMaxQueued(), "blocking");
+    }
+
+    // An executor starting a virtual thread per task on Java 21 onwards, or on 19 and 20 with preview features
+    // enabled; null anywhere else.
+    private static ExecutorService virtualThreads() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+}
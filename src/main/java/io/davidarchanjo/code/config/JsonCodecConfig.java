@@ -0,0 +1,22 @@
+package io.davidarchanjo.code.config;
+
+import io.davidarchanjo.code.builder.AppJsonEncoder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the encoder of apps with the web codecs when {@code app.json.pre-encoded} is set. Custom encoders of
+ * a given type are asked before the default ones, so it writes the apps, and Jackson everything else.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.json.pre-encoded", havingValue = "true", matchIfMissing = true)
+public class JsonCodecConfig {
+
+    @Bean
+    public CodecCustomizer appJsonCodecCustomizer() {
+        return configurer -> configurer.customCodecs().register(new AppJsonEncoder());
+    }
+
+}
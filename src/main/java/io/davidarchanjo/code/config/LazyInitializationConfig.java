@@ -0,0 +1,21 @@
+package io.davidarchanjo.code.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.reactive.HttpHandler;
+
+/**
+ * Keeps the handler serving requests, and all it depends on, out of lazy initialization. Otherwise the server
+ * would put off building it until the first request, which would then wait for most of the application to be
+ * created; only the beans no request needs are still left until something asks for them.
+ */
+@Configuration(proxyBeanMethods = false)
+public class LazyInitializationConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter httpHandlerLazyInitializationExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(HttpHandler.class);
+    }
+
+}
@@ -0,0 +1,85 @@
+package io.davidarchanjo.code.config;
+
+import io.davidarchanjo.code.filter.RequestIdWebFilter;
+import org.reactivestreams.Subscription;
+import org.slf4j.MDC;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Hooks;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+/**
+ * Copies the request id from the Reactor context into the MDC before signals reach the subscriber at the end
+ * of each chain (inner publishers included), so log lines carry it whichever thread the pipeline happens to
+ * run on. Decorating every operator instead left concurrent subscribers hanging under load. Nothing depends on
+ * it, so it is kept out of lazy initialization for the hook to be registered at all.
+ */
+@Configuration(proxyBeanMethods = false)
+@Lazy(false)
+public class MdcContextConfig {
+
+    private static final String HOOK_KEY = MdcContextConfig.class.getName();
+
+    @PostConstruct
+    public void registerHook() {
+        Hooks.onLastOperator(HOOK_KEY, Operators.lift((scannable, subscriber) -> new MdcContextSubscriber<>(subscriber)));
+    }
+
+    @PreDestroy
+    public void resetHook() {
+        Hooks.resetOnLastOperator(HOOK_KEY);
+    }
+
+    static class MdcContextSubscriber<T> implements CoreSubscriber<T> {
+
+        private final CoreSubscriber<T> actual;
+
+        MdcContextSubscriber(CoreSubscriber<T> actual) {
+            this.actual = actual;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            actual.onSubscribe(s);
+        }
+
+        @Override
+        public void onNext(T t) {
+            copyToMdc();
+            actual.onNext(t);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            copyToMdc();
+            actual.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            copyToMdc();
+            actual.onComplete();
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        private void copyToMdc() {
+            final String requestId = actual.currentContext().getOrDefault(RequestIdWebFilter.REQUEST_ID, null);
+            if (requestId != null) {
+                MDC.put(RequestIdWebFilter.REQUEST_ID, requestId);
+            } else {
+                MDC.remove(RequestIdWebFilter.REQUEST_ID);
+            }
+        }
+
+    }
+
+}
@@ -1,25 +1,41 @@
 package io.davidarchanjo.code.controller;
 
+import java.util.List;
 import java.util.Objects;
 
-import javax.validation.Valid;
-
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import io.davidarchanjo.code.builder.AppTransferCodec;
+import io.davidarchanjo.code.builder.ChangeEvents;
+import io.davidarchanjo.code.builder.ETags;
+import io.davidarchanjo.code.event.AppChangeStream;
+import io.davidarchanjo.code.handler.AppRequestHandler;
+import io.davidarchanjo.code.model.dto.AppBatchResultDTO;
+import io.davidarchanjo.code.model.dto.AppChangeDTO;
 import io.davidarchanjo.code.model.dto.AppDTO;
+import io.davidarchanjo.code.model.dto.AppPageDTO;
+import io.davidarchanjo.code.model.dto.AppTransferDTO;
 import io.davidarchanjo.code.service.AppService;
 import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @RequiredArgsConstructor
@@ -27,39 +43,135 @@ import reactor.core.publisher.Mono;
 @RequestMapping("api/annotation/apps")
 public class AppController {
     
+    private final AppRequestHandler requests;
     private final AppService service;
+    private final AppChangeStream changeStream;
+    private final AppTransferCodec transferCodec;
 
     @PostMapping
-    @ResponseStatus(HttpStatus.CREATED)    
-    public Mono<?> create(@Valid @RequestBody AppDTO dto) {
-        return service.save(dto);
+    public Mono<ResponseEntity<AppDTO>> create(@RequestBody(required = false) Mono<AppDTO> dto, ServerHttpRequest req) {
+        return requests.create(dto)
+            .map(o -> ResponseEntity.created(AppRequestHandler.location(req.getPath().value(), o)).body(o));
     }
 
     @GetMapping("{id}")
-    public Mono<?> findById(@PathVariable Long id) {
-        return service.findById(id);
+    public Mono<ResponseEntity<AppDTO>> findById(@PathVariable String id) {
+        return requests.findById(id)
+            .map(o -> ResponseEntity.ok().eTag(ETags.of(o)).body(o));
     }
 
     @GetMapping
-    public ResponseEntity<?> find(
+    public Mono<ResponseEntity<?>> find(
         @RequestParam(name = "appName", required = false) String name, 
-        @RequestParam(name = "appVersion", required = false) String version
+        @RequestParam(name = "appVersion", required = false) String version,
+        @RequestParam(name = "after", required = false) String after,
+        @RequestParam(name = "limit", required = false) String limit,
+        ServerHttpRequest req
     ) {
-        return Objects.nonNull(name) && Objects.nonNull(version) 
-            ? ResponseEntity.ok(service.findByNameAndVersion(name, version))
-            : ResponseEntity.ok(service.findAll());
+        if (Objects.nonNull(name) && Objects.nonNull(version)) {
+            return Mono.just(ResponseEntity.ok(requests.findByNameAndVersion(name, version)));
+        }
+
+        return AppRequestHandler.acceptsNdjson(req.getHeaders().getAccept())
+            ? Mono.just(ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(requests.findAll()))
+            : requests.findPage(after, limit)
+                .map(o -> page(req, o, "after"));
+    }
+
+    @GetMapping("search")
+    public Mono<ResponseEntity<Flux<AppDTO>>> search(
+        @RequestParam(name = "appName", required = false) String name,
+        @RequestParam(name = "devName", required = false) String author,
+        @RequestParam(name = "minVersion", required = false) String minVersion,
+        @RequestParam(name = "maxVersion", required = false) String maxVersion,
+        @RequestParam(name = "sort", required = false) String sort,
+        @RequestParam(name = "cursor", required = false) String cursor,
+        @RequestParam(name = "limit", required = false) String limit,
+        ServerHttpRequest req
+    ) {
+        return requests.search(name, author, minVersion, maxVersion, sort, cursor, limit)
+            .map(o -> page(req, o, "cursor"));
+    }
+
+    @GetMapping("changes")
+    public ResponseEntity<Flux<?>> changes(
+        @RequestHeader(name = ChangeEvents.LAST_EVENT_ID, required = false) String lastEventId,
+        ServerHttpRequest req
+    ) {
+        final Flux<AppChangeDTO> changes = changeStream.changes(ChangeEvents.lastEventId(lastEventId));
+        return AppRequestHandler.acceptsNdjson(req.getHeaders().getAccept())
+            ? ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(changes)
+            : ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(changes.map(ChangeEvents::of));
+    }
+
+    @GetMapping("export")
+    public ResponseEntity<Flux<DataBuffer>> exportAll(ServerHttpRequest req, ServerHttpResponse res) {
+        final AppTransferCodec.Format format = AppTransferCodec.Format.of(req.getHeaders().getAccept());
+        return ResponseEntity.ok()
+            .contentType(format.getMediaType())
+            .body(transferCodec.encode(service.findAll(), format, res.bufferFactory()));
+    }
+
+    @PostMapping("import")
+    public Mono<AppTransferDTO> importAll(@RequestBody Flux<DataBuffer> body, ServerHttpRequest req) {
+        final MediaType contentType = req.getHeaders().getContentType();
+        final AppTransferCodec.Format format = AppTransferCodec.Format.of(contentType == null ? List.of() : List.of(contentType));
+        return service.importAll(transferCodec.decode(body, format))
+            .elapsed()
+            .map(o -> AppTransferCodec.summary(o.getT1(), o.getT2()));
     }
 
     @PutMapping("{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public Mono<?> update(@PathVariable Long id, @Valid @RequestBody AppDTO dto) {
-        return service.updateById(id, dto);
+    public Mono<Void> update(
+        @PathVariable String id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestBody(required = false) Mono<AppDTO> dto
+    ) {
+        return requests.update(id, dto, ifMatch);
+    }
+
+    @PatchMapping("{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> patch(
+        @PathVariable String id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestBody(required = false) Mono<AppDTO> dto
+    ) {
+        return requests.patch(id, dto, ifMatch);
     }
 
     @DeleteMapping("{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public Mono<?> delete(@PathVariable Long id) {
-        return service.deleteById(id);
+    public Mono<Void> delete(
+        @PathVariable String id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        return requests.delete(id, ifMatch);
+    }
+
+    @PostMapping(path = "batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<AppBatchResultDTO> createAll(@RequestBody Flux<AppDTO> dtos) {
+        return service.saveAll(dtos);
+    }
+
+    @PutMapping(path = "batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<AppBatchResultDTO> updateAll(@RequestBody Flux<AppDTO> dtos) {
+        return service.updateAll(dtos);
+    }
+
+    @DeleteMapping(path = "batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<AppBatchResultDTO> deleteAll(@RequestBody Flux<Long> ids) {
+        return service.deleteAllById(ids);
+    }
+
+    private ResponseEntity<Flux<AppDTO>> page(ServerHttpRequest req, AppPageDTO page, String nextParam) {
+        final ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        final String link = AppRequestHandler.nextLink(req.getPath().value(), req.getQueryParams(), page, nextParam);
+        if (link != null) {
+            response.header(HttpHeaders.LINK, link);
+        }
+        return response.body(Flux.fromIterable(page.getContent()));
     }
 
-}
\ No newline at end of file
+}
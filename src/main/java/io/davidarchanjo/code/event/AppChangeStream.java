@@ -0,0 +1,107 @@
+package io.davidarchanjo.code.event;
+
+import io.davidarchanjo.code.config.AppProperties;
+import io.davidarchanjo.code.model.domain.AppChangeType;
+import io.davidarchanjo.code.model.dto.AppChangeDTO;
+import io.davidarchanjo.code.model.dto.AppDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Numbered feed of the app mutations, multicast to every subscriber. The latest events are kept in a ring so
+ * a client can resume after the last id it saw. Each subscriber reads from its own bounded buffer: one that
+ * falls further behind has its stream completed once the buffer is drained, instead of holding back the
+ * writers or the other subscribers, and is expected to resume.
+ */
+@Component
+public class AppChangeStream {
+
+    private final Sinks.Many<AppChangeDTO> sink = Sinks.many().multicast().directBestEffort();
+    private final AppChangeDTO[] history;
+    private final int bufferSize;
+    private final Counter overflows;
+    private final AtomicInteger subscribers;
+    private long sequence;
+
+    public AppChangeStream(AppProperties properties, MeterRegistry meterRegistry) {
+        this.history = new AppChangeDTO[properties.getChanges().getHistorySize()];
+        this.bufferSize = properties.getChanges().getBufferSize();
+        this.overflows = meterRegistry.counter("app.changes.overflows");
+        this.subscribers = meterRegistry.gauge("app.changes.subscribers", new AtomicInteger());
+    }
+
+    public void created(AppDTO app) {
+        publish(AppChangeType.CREATED, app.getId(), app);
+    }
+
+    public void updated(Long appId) {
+        publish(AppChangeType.UPDATED, appId, null);
+    }
+
+    public void deleted(Long appId) {
+        publish(AppChangeType.DELETED, appId, null);
+    }
+
+    public void reset() {
+        publish(AppChangeType.RESET, null, null);
+    }
+
+    /**
+     * Events published from now on, preceded by the retained ones after {@code lastEventId} when given. If
+     * those are no longer all retained, a single {@link AppChangeType#RESET} event is replayed instead.
+     */
+    public Flux<AppChangeDTO> changes(Long lastEventId) {
+        return Flux.defer(() -> {
+            final Sinks.Many<AppChangeDTO> buffer = Sinks.many().unicast().onBackpressureBuffer(Queues.<AppChangeDTO>get(bufferSize).get());
+            final List<AppChangeDTO> replay;
+            final Disposable live;
+            // Taking the replay and joining the live feed under the publishing lock leaves no gap or overlap.
+            synchronized (this) {
+                replay = since(lastEventId);
+                live = sink.asFlux().subscribe(o -> {
+                    if (buffer.tryEmitNext(o) == Sinks.EmitResult.FAIL_OVERFLOW) {
+                        overflows.increment();
+                        buffer.tryEmitComplete();
+                    }
+                });
+            }
+            subscribers.incrementAndGet();
+            return Flux.concat(Flux.fromIterable(replay), buffer.asFlux())
+                .doFinally(__ -> {
+                    live.dispose();
+                    subscribers.decrementAndGet();
+                });
+        });
+    }
+
+    private synchronized void publish(AppChangeType type, Long appId, AppDTO app) {
+        final AppChangeDTO event = AppChangeDTO.builder().id(++sequence).type(type).appId(appId).app(app).build();
+        history[(int) (event.getId() % history.length)] = event;
+        sink.tryEmitNext(event);
+    }
+
+    private List<AppChangeDTO> since(Long lastEventId) {
+        if (lastEventId == null || lastEventId == sequence) {
+            return List.of();
+        }
+        final long oldest = Math.max(1, sequence - history.length + 1);
+        if (lastEventId > sequence || lastEventId < oldest - 1) {
+            return List.of(AppChangeDTO.builder().id(sequence).type(AppChangeType.RESET).build());
+        }
+        final List<AppChangeDTO> events = new ArrayList<>((int) (sequence - lastEventId));
+        for (long id = lastEventId + 1; id <= sequence; id++) {
+            events.add(history[(int) (id % history.length)]);
+        }
+        return events;
+    }
+
+}
@@ -0,0 +1,21 @@
+package io.davidarchanjo.code.event;
+
+import io.davidarchanjo.code.model.dto.AppInvalidationDTO;
+import reactor.core.publisher.Flux;
+
+/**
+ * Carries cache invalidations between the instances sharing a store, so that each drops what the writes of the
+ * others made stale. Delivery is best effort: a lost invalidation leaves an entry stale until it expires. A
+ * transport is plugged in by declaring a bean of this type; {@link LoopbackAppInvalidationBus} connects the
+ * instances running in the same JVM.
+ */
+public interface AppInvalidationBus {
+
+    void publish(AppInvalidationDTO invalidation);
+
+    /**
+     * Invalidations published by the other instances, not including those published through this one.
+     */
+    Flux<AppInvalidationDTO> invalidations();
+
+}
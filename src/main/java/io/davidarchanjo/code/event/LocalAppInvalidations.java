@@ -0,0 +1,27 @@
+package io.davidarchanjo.code.event;
+
+import io.davidarchanjo.code.model.dto.AppInvalidationDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Invalidations for the writes made in this instance without going through the cache, as the blocking execution
+ * mode and the write-behind flushes do. The cache applies them as if they were its own, so they also reach the other instances through the
+ * {@link AppInvalidationBus}. They are applied on the publishing thread.
+ */
+public class LocalAppInvalidations {
+
+    private final Sinks.Many<AppInvalidationDTO> sink = Sinks.many().multicast().directBestEffort();
+
+    // The sink only takes one emission at a time, and the blocking writes and the flushes publish from many threads.
+    public void publish(AppInvalidationDTO invalidation) {
+        synchronized (sink) {
+            sink.tryEmitNext(invalidation);
+        }
+    }
+
+    public Flux<AppInvalidationDTO> invalidations() {
+        return sink.asFlux();
+    }
+
+}
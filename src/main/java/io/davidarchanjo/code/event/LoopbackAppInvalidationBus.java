@@ -0,0 +1,42 @@
+package io.davidarchanjo.code.event;
+
+import io.davidarchanjo.code.model.dto.AppInvalidationDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Connects every instance of the application started in the same JVM, as tests and benchmarks do, through a
+ * single in-process multicast. Invalidations are handed to the other instances on the publishing thread, and
+ * an instance closing stops receiving them.
+ */
+public class LoopbackAppInvalidationBus implements AppInvalidationBus, AutoCloseable {
+
+    private static final Sinks.Many<Envelope> LOOPBACK = Sinks.many().multicast().directBestEffort();
+
+    private final Sinks.Empty<Void> closed = Sinks.empty();
+
+    // The sink only takes one emission at a time, so instances publish under a lock they all share.
+    @Override
+    public void publish(AppInvalidationDTO invalidation) {
+        synchronized (LOOPBACK) {
+            LOOPBACK.tryEmitNext(new Envelope(this, invalidation));
+        }
+    }
+
+    @Override
+    public Flux<AppInvalidationDTO> invalidations() {
+        return LOOPBACK.asFlux()
+            .filter(o -> o.origin() != this)
+            .map(Envelope::invalidation)
+            .takeUntilOther(closed.asMono());
+    }
+
+    @Override
+    public void close() {
+        closed.tryEmitEmpty();
+    }
+
+    private record Envelope(LoopbackAppInvalidationBus origin, AppInvalidationDTO invalidation) {
+    }
+
+}
@@ -1,11 +1,9 @@
 package io.davidarchanjo.code.exception;
 
-import java.text.MessageFormat;
-
-public class AppAlreadyExistException extends RuntimeException {
+public class AppAlreadyExistException extends AppException {
 
     public AppAlreadyExistException(String pattern, Object... args) {
-        super(new MessageFormat(pattern).format(args));
+        super(pattern, args);
     }
 
 }
@@ -0,0 +1,29 @@
+package io.davidarchanjo.code.exception;
+
+import java.text.MessageFormat;
+
+/**
+ * Base of the exceptions answered with a client error. They report an expected outcome rather than a fault,
+ * so no stack trace is captured and the message is only formatted when something reads it.
+ */
+public abstract class AppException extends RuntimeException {
+
+    private final String pattern;
+    private final Object[] args;
+    private String message;
+
+    protected AppException(String pattern, Object... args) {
+        super(null, null, false, false);
+        this.pattern = pattern;
+        this.args = args;
+    }
+
+    @Override
+    public String getMessage() {
+        if (message == null) {
+            message = new MessageFormat(pattern).format(args);
+        }
+        return message;
+    }
+
+}
@@ -0,0 +1,26 @@
+package io.davidarchanjo.code.exception;
+
+import java.util.List;
+
+public class AppInvalidInputException extends AppException {
+
+    private final List<String> details;
+
+    public AppInvalidInputException(String pattern, Object... args) {
+        super(pattern, args);
+        this.details = null;
+    }
+
+    /**
+     * One detail per constraint the input breaks, answered as they are rather than as a single message.
+     */
+    public AppInvalidInputException(List<String> details) {
+        super("Invalid input - {0}", details);
+        this.details = details;
+    }
+
+    public List<String> getDetails() {
+        return details == null ? List.of(getMessage()) : details;
+    }
+
+}
@@ -1,11 +1,9 @@
 package io.davidarchanjo.code.exception;
 
-import java.text.MessageFormat;
-
-public class AppNotFoundException extends RuntimeException {
+public class AppNotFoundException extends AppException {
 
     public AppNotFoundException(String pattern, Object... args) {
-        super(new MessageFormat(pattern).format(args));
+        super(pattern, args);
     }
 
 }
@@ -0,0 +1,9 @@
+package io.davidarchanjo.code.exception;
+
+public class AppOverloadedException extends AppException {
+
+    public AppOverloadedException(String pattern, Object... args) {
+        super(pattern, args);
+    }
+
+}
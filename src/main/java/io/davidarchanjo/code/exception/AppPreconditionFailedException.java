@@ -0,0 +1,9 @@
+package io.davidarchanjo.code.exception;
+
+public class AppPreconditionFailedException extends AppException {
+
+    public AppPreconditionFailedException(String pattern, Object... args) {
+        super(pattern, args);
+    }
+
+}
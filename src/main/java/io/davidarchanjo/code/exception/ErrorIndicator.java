@@ -10,7 +10,10 @@ public enum ErrorIndicator {
     ERROR_RESOURCE_NOT_FOUND("001", "Resource not found"),
     ERROR_RESOURCE_ALREADY_EXIST("002", "Resource already exist"),
     ERROR_INPUT_VALIDATION("003", "Input validation failed"),
-    ERROR_INTERNAL_SERVER_FAILURE("004", "Internal server failure");
+    ERROR_INTERNAL_SERVER_FAILURE("004", "Internal server failure"),
+    ERROR_PRECONDITION_FAILED("005", "Resource has been modified"),
+    ERROR_TOO_MANY_REQUESTS("006", "Too many requests"),
+    ERROR_SERVICE_OVERLOADED("007", "Service overloaded");
 
     private String code;
     private String message;
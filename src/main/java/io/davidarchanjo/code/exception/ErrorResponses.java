@@ -0,0 +1,64 @@
+package io.davidarchanjo.code.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.davidarchanjo.code.model.dto.ErrorDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Serialised error bodies. Those without details only vary by the second in their time field, so each
+ * {@link ErrorIndicator} body is serialised once per second and the same bytes are shared by every response.
+ */
+@RequiredArgsConstructor
+@Component
+public class ErrorResponses {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final ObjectMapper objectMapper;
+    private final AtomicReferenceArray<Body> bodies = new AtomicReferenceArray<>(ErrorIndicator.values().length);
+
+    public ResponseEntity<byte[]> of(ErrorIndicator indicator, HttpStatus status) {
+        final long second = System.currentTimeMillis() / 1000;
+        Body body = bodies.get(indicator.ordinal());
+        if (body == null || body.second() != second) {
+            body = new Body(second, serialize(ErrorDTO.builder()
+                .code(indicator.getCode())
+                .message(indicator.getMessage())
+                .build()));
+            bodies.set(indicator.ordinal(), body);
+        }
+        return response(status, body.bytes());
+    }
+
+    public ResponseEntity<byte[]> of(ErrorIndicator indicator, HttpStatus status, List<String> details) {
+        return response(status, serialize(ErrorDTO.builder()
+            .code(indicator.getCode())
+            .message(indicator.getMessage())
+            .details(details)
+            .build()));
+    }
+
+    private byte[] serialize(ErrorDTO error) {
+        try {
+            return objectMapper.writeValueAsBytes(error);
+        } catch (JsonProcessingException e) {
+            return EMPTY;
+        }
+    }
+
+    private static ResponseEntity<byte[]> response(HttpStatus status, byte[] body) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private record Body(long second, byte[] bytes) {
+    }
+
+}
@@ -1,50 +1,56 @@
 package io.davidarchanjo.code.exception;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import io.davidarchanjo.code.model.dto.ErrorDTO;
+import io.davidarchanjo.code.filter.RequestIdWebFilter;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
+import org.slf4j.MDC;
 import org.springframework.boot.web.reactive.error.ErrorWebExceptionHandler;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
-import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.bind.support.WebExchangeBindException;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.util.Objects;
+
 @RequiredArgsConstructor
 @Order(Ordered.HIGHEST_PRECEDENCE)
-@Configuration
+@Configuration(proxyBeanMethods = false)
 public class GlobalWebFluxExceptionHandler implements ErrorWebExceptionHandler {
 
-  private final ObjectMapper objectMapper;
   private final GlobalWebMVCExceptionHandler globalExceptionHandler;
 
-  @SneakyThrows
   @Override
   public Mono<Void> handle(ServerWebExchange exchange, Throwable th) {
-    final Mono<ErrorDTO> error = switch (th) {
-      case AppNotFoundException ignored -> this.globalExceptionHandler.handlerAppNotFoundException((AppNotFoundException) th);
-      case AppAlreadyExistException ignored -> this.globalExceptionHandler.handlerAppAlreadyExistException((AppAlreadyExistException) th);
-      case WebExchangeBindException ignored -> this.globalExceptionHandler.handlerWebExchangeBindException((WebExchangeBindException) th);
-      default -> this.globalExceptionHandler.handlerException((Exception) th);
-    };
+    // Error handlers run outside the web filter chain, so the request id comes from the exchange instead of the context.
+    // The handlers log as they are called, and the entry is removed right after, not to be left on the event loop.
+    final String requestId = exchange.getAttribute(RequestIdWebFilter.REQUEST_ID);
+    if (requestId != null) {
+      MDC.put(RequestIdWebFilter.REQUEST_ID, requestId);
+    }
+    final Mono<ResponseEntity<byte[]>> error;
+    try {
+      error = switch (th) {
+        case AppNotFoundException ignored -> this.globalExceptionHandler.handlerAppNotFoundException((AppNotFoundException) th);
+        case AppAlreadyExistException ignored -> this.globalExceptionHandler.handlerAppAlreadyExistException((AppAlreadyExistException) th);
+        case AppPreconditionFailedException ignored -> this.globalExceptionHandler.handlerAppPreconditionFailedException((AppPreconditionFailedException) th);
+        case AppInvalidInputException ignored -> this.globalExceptionHandler.handlerAppInvalidInputException((AppInvalidInputException) th);
+        case AppOverloadedException ignored -> this.globalExceptionHandler.handlerAppOverloadedException((AppOverloadedException) th);
+        case WebExchangeBindException ignored -> this.globalExceptionHandler.handlerWebExchangeBindException((WebExchangeBindException) th);
+        default -> this.globalExceptionHandler.handlerException((Exception) th);
+      };
+    } finally {
+      MDC.remove(RequestIdWebFilter.REQUEST_ID);
+    }
 
     return error.flatMap(o -> {
-      DataBuffer dataBuffer;
-      DataBufferFactory bufferFactory = exchange.getResponse().bufferFactory();
-      try {
-        dataBuffer = bufferFactory.wrap(objectMapper.writeValueAsBytes(o));
-      } catch (JsonProcessingException e) {
-        dataBuffer = bufferFactory.wrap("".getBytes());
-      }
-      exchange.getResponse().setStatusCode(o.getHttpStatus());
-      exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
-      return exchange.getResponse().writeWith(Mono.just(dataBuffer));
+      final ServerHttpResponse response = exchange.getResponse();
+      response.setStatusCode(o.getStatusCode());
+      response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+      return response.writeWith(Mono.just(response.bufferFactory().wrap(Objects.requireNonNull(o.getBody()))));
     });
   }
 
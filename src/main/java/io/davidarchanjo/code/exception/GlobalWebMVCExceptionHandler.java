@@ -1,63 +1,81 @@
 package io.davidarchanjo.code.exception;
 
-import io.davidarchanjo.code.model.dto.ErrorDTO;
+import io.davidarchanjo.code.config.AppProperties;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.MessageSource;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
-import org.springframework.web.bind.annotation.ResponseBody;
-import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.support.WebExchangeBindException;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.stream.Collectors;
 
 @Slf4j
 @RequiredArgsConstructor
 @ControllerAdvice
-@ResponseBody
 public class GlobalWebMVCExceptionHandler {
 
     private final MessageSource messageSource;
+    private final MeterRegistry meterRegistry;
+    private final ErrorResponses errorResponses;
+    private final AppProperties properties;
 
-    @ExceptionHandler(AppNotFoundException.class)
-    @ResponseStatus(value = HttpStatus.NOT_FOUND)
-    public Mono<ErrorDTO> handlerAppNotFoundException(AppNotFoundException ex) {
-        log.error(ex.getMessage(), ex);
+    private final AtomicLongArray nextLogAt = new AtomicLongArray(ErrorIndicator.values().length);
+    private final AtomicLongArray suppressed = new AtomicLongArray(ErrorIndicator.values().length);
 
-        final ErrorDTO error = ErrorDTO.builder()
-            .code(ErrorIndicator.ERROR_RESOURCE_NOT_FOUND.getCode())
-            .message(ErrorIndicator.ERROR_RESOURCE_NOT_FOUND.getMessage())
-            .httpStatus(HttpStatus.NOT_FOUND)
-            .build();
+    @ExceptionHandler(AppNotFoundException.class)
+    public Mono<ResponseEntity<byte[]>> handlerAppNotFoundException(AppNotFoundException ex) {
+        logSampled(ErrorIndicator.ERROR_RESOURCE_NOT_FOUND, ex);
+        count(ErrorIndicator.ERROR_RESOURCE_NOT_FOUND);
 
-        return Mono.just(error);
+        return Mono.just(errorResponses.of(ErrorIndicator.ERROR_RESOURCE_NOT_FOUND, HttpStatus.NOT_FOUND));
     }
 
     @ExceptionHandler(AppAlreadyExistException.class)
-    @ResponseStatus(value = HttpStatus.CONFLICT)
-    public Mono<ErrorDTO> handlerAppAlreadyExistException(AppAlreadyExistException ex) {
-        log.error(ex.getMessage(), ex);
+    public Mono<ResponseEntity<byte[]>> handlerAppAlreadyExistException(AppAlreadyExistException ex) {
+        logSampled(ErrorIndicator.ERROR_RESOURCE_ALREADY_EXIST, ex);
+        count(ErrorIndicator.ERROR_RESOURCE_ALREADY_EXIST);
+
+        return Mono.just(errorResponses.of(ErrorIndicator.ERROR_RESOURCE_ALREADY_EXIST, HttpStatus.CONFLICT));
+    }
+
+    @ExceptionHandler(AppPreconditionFailedException.class)
+    public Mono<ResponseEntity<byte[]>> handlerAppPreconditionFailedException(AppPreconditionFailedException ex) {
+        logSampled(ErrorIndicator.ERROR_PRECONDITION_FAILED, ex);
+        count(ErrorIndicator.ERROR_PRECONDITION_FAILED);
+
+        return Mono.just(errorResponses.of(ErrorIndicator.ERROR_PRECONDITION_FAILED, HttpStatus.PRECONDITION_FAILED));
+    }
 
-        final ErrorDTO error = ErrorDTO.builder()
-            .code(ErrorIndicator.ERROR_RESOURCE_ALREADY_EXIST.getCode())
-            .message(ErrorIndicator.ERROR_RESOURCE_ALREADY_EXIST.getMessage())
-            .httpStatus(HttpStatus.CONFLICT)
-            .build();
+    @ExceptionHandler(AppInvalidInputException.class)
+    public Mono<ResponseEntity<byte[]>> handlerAppInvalidInputException(AppInvalidInputException ex) {
+        logSampled(ErrorIndicator.ERROR_INPUT_VALIDATION, ex);
+        count(ErrorIndicator.ERROR_INPUT_VALIDATION);
 
-        return Mono.just(error);
+        return Mono.just(errorResponses.of(ErrorIndicator.ERROR_INPUT_VALIDATION, HttpStatus.BAD_REQUEST, ex.getDetails()));
+    }
+
+    @ExceptionHandler(AppOverloadedException.class)
+    public Mono<ResponseEntity<byte[]>> handlerAppOverloadedException(AppOverloadedException ex) {
+        logSampled(ErrorIndicator.ERROR_SERVICE_OVERLOADED, ex);
+        count(ErrorIndicator.ERROR_SERVICE_OVERLOADED);
+
+        return Mono.just(errorResponses.of(ErrorIndicator.ERROR_SERVICE_OVERLOADED, HttpStatus.SERVICE_UNAVAILABLE));
     }
 
     @ExceptionHandler(WebExchangeBindException.class)
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public Mono<ErrorDTO> handlerWebExchangeBindException(WebExchangeBindException ex) {
-        log.error(ex.getMessage(), ex);
+    public Mono<ResponseEntity<byte[]>> handlerWebExchangeBindException(WebExchangeBindException ex) {
+        logSampled(ErrorIndicator.ERROR_INPUT_VALIDATION, ex);
+        count(ErrorIndicator.ERROR_INPUT_VALIDATION);
 
         final List<String> details = ex.getAllErrors()
             .stream()
@@ -70,28 +88,37 @@ public class GlobalWebMVCExceptionHandler {
                 Locale.getDefault()))
             .collect(Collectors.toList());
 
-        final ErrorDTO error = ErrorDTO.builder()
-            .code(ErrorIndicator.ERROR_INPUT_VALIDATION.getCode())
-            .message(ErrorIndicator.ERROR_INPUT_VALIDATION.getMessage())
-            .httpStatus(HttpStatus.BAD_REQUEST)
-            .details(details)
-            .build();
-
-        return Mono.just(error);
+        return Mono.just(errorResponses.of(ErrorIndicator.ERROR_INPUT_VALIDATION, HttpStatus.BAD_REQUEST, details));
     }
 
     @ExceptionHandler(Exception.class)
-    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
-    public Mono<ErrorDTO> handlerException(Exception ex) {
+    public Mono<ResponseEntity<byte[]>> handlerException(Exception ex) {
         log.error(ex.getMessage(), ex);
+        count(ErrorIndicator.ERROR_INTERNAL_SERVER_FAILURE);
+
+        return Mono.just(errorResponses.of(ErrorIndicator.ERROR_INTERNAL_SERVER_FAILURE, HttpStatus.INTERNAL_SERVER_ERROR));
+    }
 
-        final ErrorDTO error = ErrorDTO.builder()
-            .code(ErrorIndicator.ERROR_INTERNAL_SERVER_FAILURE.getCode())
-            .message(ErrorIndicator.ERROR_INTERNAL_SERVER_FAILURE.getMessage())
-            .httpStatus(HttpStatus.INTERNAL_SERVER_ERROR)
-            .build();
+    private void count(ErrorIndicator indicator) {
+        meterRegistry.counter("app.errors", "code", indicator.getCode(), "error", indicator.name()).increment();
+    }
 
-        return Mono.just(error);
+    // Client errors are expected and may come in floods, so at most one line per indicator and interval is
+    // written, carrying how many were skipped since the previous one; app.errors still counts all of them.
+    private void logSampled(ErrorIndicator indicator, Exception ex) {
+        final int i = indicator.ordinal();
+        final long now = System.currentTimeMillis();
+        final long next = nextLogAt.get(i);
+        if (now - next < 0 || !nextLogAt.compareAndSet(i, next, now + properties.getErrors().getLogInterval().toMillis())) {
+            suppressed.incrementAndGet(i);
+            return;
+        }
+        final long skipped = suppressed.getAndSet(i, 0);
+        if (skipped > 0) {
+            log.warn("{} ({} similar errors not logged)", ex.getMessage(), skipped);
+        } else {
+            log.warn(ex.getMessage());
+        }
     }
 
 }
@@ -0,0 +1,53 @@
+package io.davidarchanjo.code.filter;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+/**
+ * The endpoint families served under {@code /api}, which the admission filters budget separately and leave
+ * everything else, such as the actuator, alone.
+ */
+enum ApiRoute {
+
+    FUNCTIONAL("/api/functional/apps"),
+    ANNOTATION("/api/annotation/apps"),
+    BLOCKING("/api/blocking/apps");
+
+    private final String basePath;
+
+    ApiRoute(String basePath) {
+        this.basePath = basePath;
+    }
+
+    static ApiRoute of(ServerHttpRequest request) {
+        final String path = request.getPath().pathWithinApplication().value();
+        for (ApiRoute route : values()) {
+            if (path.startsWith(route.basePath) && (path.length() == route.basePath.length() || path.charAt(route.basePath.length()) == '/')) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    // The routes reading or writing the whole catalogue or a batch of apps in one request.
+    boolean isBulk(ServerHttpRequest request) {
+        final String subPath = subPath(request);
+        if (subPath.isEmpty()) {
+            return request.getMethod() == HttpMethod.GET
+                && !request.getQueryParams().containsKey("appName")
+                && request.getHeaders().getAccept().stream().anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+        }
+        return subPath.equals("/batch") || subPath.equals("/export") || subPath.equals("/import");
+    }
+
+    // The change stream stays open for as long as the client follows it, without touching the apps.
+    boolean isChanges(ServerHttpRequest request) {
+        return subPath(request).equals("/changes");
+    }
+
+    private String subPath(ServerHttpRequest request) {
+        return request.getPath().pathWithinApplication().value().substring(basePath.length());
+    }
+
+}
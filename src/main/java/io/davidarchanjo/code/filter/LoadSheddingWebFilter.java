@@ -0,0 +1,194 @@
+package io.davidarchanjo.code.filter;
+
+import io.davidarchanjo.code.config.AppProperties;
+import io.davidarchanjo.code.exception.ErrorIndicator;
+import io.davidarchanjo.code.exception.ErrorResponses;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the API requests served at once at {@code app.shedding.max-concurrency}, as they all end up waiting on
+ * the same connection pool. The ones beyond wait in line, first come first served, for at most
+ * {@code app.shedding.latency-budget}, and are answered {@code 503 Service Unavailable} with a
+ * {@code Retry-After} once it is spent. A request whose expected wait, from the line ahead of it and the
+ * average time a request is served, already exceeds the budget is refused on arrival instead of waiting for
+ * nothing. Slots are counted and handed over with compare-and-set only. The change stream and the bulk routes
+ * are left out, to the rate limiter alone: the former stays open without touching the apps, and both would hold
+ * a slot for seconds, or for as long as the client follows, and lift the average until ordinary requests are
+ * shed on arrival.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@ConditionalOnProperty(name = "app.shedding.enabled", havingValue = "true", matchIfMissing = true)
+public class LoadSheddingWebFilter implements WebFilter, MeterBinder {
+
+    private static final String METRIC_NAME = "app.shedding";
+
+    private static final int WAITING = 0;
+    private static final int GRANTED = 1;
+    private static final int TAKEN = 2;
+    private static final int ABANDONED = 3;
+
+    private final ErrorResponses errorResponses;
+    private final int maxConcurrency;
+    private final Duration latencyBudget;
+    private final AtomicInteger permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Queue<Waiter> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong averageNanos = new AtomicLong();
+    private final Map<Outcome, LongAdder> outcomes = new EnumMap<>(Outcome.class);
+
+    public LoadSheddingWebFilter(AppProperties properties, ErrorResponses errorResponses) {
+        this.errorResponses = errorResponses;
+        this.maxConcurrency = properties.getShedding().getMaxConcurrency();
+        this.latencyBudget = properties.getShedding().getLatencyBudget();
+        this.permits = new AtomicInteger(maxConcurrency);
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, new LongAdder());
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        final ApiRoute route = ApiRoute.of(exchange.getRequest());
+        if (route == null || route.isChanges(exchange.getRequest()) || route.isBulk(exchange.getRequest())) {
+            return chain.filter(exchange);
+        }
+
+        // Only skipping the line when nobody waits in it keeps those waiting from being overtaken forever.
+        if (waiting.get() == 0 && tryAcquire()) {
+            outcomes.get(Outcome.ADMITTED).increment();
+            return serve(exchange, chain);
+        }
+        final long expectedWait = (waiting.get() + 1) * averageNanos.get() / maxConcurrency;
+        if (expectedWait > latencyBudget.toNanos()) {
+            return shed(exchange, expectedWait);
+        }
+
+        final Waiter waiter = new Waiter();
+        waiting.incrementAndGet();
+        queue.offer(waiter);
+        drain();
+        return waiter.granted.asMono()
+            .timeout(latencyBudget, Mono.just(Boolean.FALSE))
+            .doOnCancel(() -> abandon(waiter))
+            .flatMap(__ -> {
+                if (take(waiter)) {
+                    outcomes.get(Outcome.QUEUED).increment();
+                    return serve(exchange, chain);
+                }
+                return shed(exchange, latencyBudget.toNanos());
+            });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        outcomes.forEach((outcome, count) -> FunctionCounter.builder(METRIC_NAME + ".requests", count, LongAdder::sum)
+            .description("API requests served straight away, after queueing, or shed")
+            .tag("outcome", outcome.name())
+            .register(registry));
+        Gauge.builder(METRIC_NAME + ".in.flight", permits, o -> maxConcurrency - o.get())
+            .description("API requests being served")
+            .register(registry);
+        Gauge.builder(METRIC_NAME + ".queued", waiting, AtomicInteger::get)
+            .description("API requests waiting to be served")
+            .register(registry);
+    }
+
+    private Mono<Void> serve(ServerWebExchange exchange, WebFilterChain chain) {
+        final long start = System.nanoTime();
+        return chain.filter(exchange)
+            .doFinally(__ -> {
+                final long elapsed = System.nanoTime() - start;
+                averageNanos.accumulateAndGet(elapsed, (average, o) -> average == 0 ? o : average + (o - average) / 16);
+                release();
+            });
+    }
+
+    private Mono<Void> shed(ServerWebExchange exchange, long retryAfterNanos) {
+        outcomes.get(Outcome.SHED).increment();
+        return Rejections.write(exchange, errorResponses.of(ErrorIndicator.ERROR_SERVICE_OVERLOADED, HttpStatus.SERVICE_UNAVAILABLE), retryAfterNanos);
+    }
+
+    private boolean tryAcquire() {
+        for (;;) {
+            final int available = permits.get();
+            if (available <= 0) {
+                return false;
+            }
+            if (permits.compareAndSet(available, available - 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void release() {
+        permits.incrementAndGet();
+        drain();
+    }
+
+    // Hands free slots to the waiters in line order. Both a release and a new waiter run it after publishing
+    // their change, so a slot freed while a waiter is joining the line is seen by one of the two.
+    private void drain() {
+        while (!queue.isEmpty() && tryAcquire()) {
+            final Waiter waiter = queue.poll();
+            if (waiter == null || !waiter.state.compareAndSet(WAITING, GRANTED)) {
+                permits.incrementAndGet();
+                continue;
+            }
+            waiting.decrementAndGet();
+            waiter.granted.tryEmitValue(Boolean.TRUE);
+        }
+    }
+
+    // Called once the waiter was granted a slot or ran out of time, either of which may happen first.
+    private boolean take(Waiter waiter) {
+        if (waiter.state.compareAndSet(WAITING, ABANDONED)) {
+            waiting.decrementAndGet();
+            return false;
+        }
+        return waiter.state.compareAndSet(GRANTED, TAKEN);
+    }
+
+    // The client went away while waiting, giving back the slot if it was granted one it had not taken yet.
+    private void abandon(Waiter waiter) {
+        if (waiter.state.compareAndSet(WAITING, ABANDONED)) {
+            waiting.decrementAndGet();
+        } else if (waiter.state.compareAndSet(GRANTED, ABANDONED)) {
+            release();
+        }
+    }
+
+    private enum Outcome {
+        ADMITTED, QUEUED, SHED
+    }
+
+    private static final class Waiter {
+
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private final Sinks.One<Boolean> granted = Sinks.one();
+
+    }
+
+}
@@ -0,0 +1,162 @@
+package io.davidarchanjo.code.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.davidarchanjo.code.config.AppProperties;
+import io.davidarchanjo.code.exception.ErrorIndicator;
+import io.davidarchanjo.code.exception.ErrorResponses;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Holds every client to a token bucket per endpoint family, answering {@code 429 Too Many Requests} with a
+ * {@code Retry-After} once it is empty. Clients are told apart by their address, or by the
+ * {@code app.rate-limit.client-header} header once {@code app.rate-limit.trust-client-header} says a proxy sets
+ * it, and the routes streaming the whole catalogue or a batch take
+ * {@code app.rate-limit.bulk-cost} tokens instead of one. Taking tokens is a single compare-and-set on the
+ * bucket, which is looked up without locking as well.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "app.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitWebFilter implements WebFilter, MeterBinder {
+
+    private static final String METRIC_NAME = "app.rate.limit";
+    private static final int MAX_CLIENT_LENGTH = 64;
+
+    private final AppProperties.RateLimit properties;
+    private final ErrorResponses errorResponses;
+    private final Cache<Client, TokenBucket> buckets;
+    private final Map<ApiRoute, Rate> rates = new EnumMap<>(ApiRoute.class);
+    private final Map<ApiRoute, LongAdder> allowed = new EnumMap<>(ApiRoute.class);
+    private final Map<ApiRoute, LongAdder> throttled = new EnumMap<>(ApiRoute.class);
+
+    public RateLimitWebFilter(AppProperties properties, ErrorResponses errorResponses) {
+        this.properties = properties.getRateLimit();
+        this.errorResponses = errorResponses;
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(this.properties.getMaximumClients())
+            .expireAfterAccess(this.properties.getIdleTimeout())
+            .build();
+        rates.put(ApiRoute.FUNCTIONAL, Rate.of(this.properties.getFunctional()));
+        rates.put(ApiRoute.ANNOTATION, Rate.of(this.properties.getAnnotation()));
+        rates.put(ApiRoute.BLOCKING, Rate.of(this.properties.getBlocking()));
+        for (ApiRoute route : ApiRoute.values()) {
+            allowed.put(route, new LongAdder());
+            throttled.put(route, new LongAdder());
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        final ServerHttpRequest request = exchange.getRequest();
+        final ApiRoute route = ApiRoute.of(request);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+
+        final long now = System.nanoTime();
+        final TokenBucket bucket = buckets.get(new Client(client(request), route), o -> new TokenBucket(now));
+        final long wait = bucket.take(now, route.isBulk(request) ? properties.getBulkCost() : 1, rates.get(route));
+        if (wait > 0) {
+            throttled.get(route).increment();
+            return Rejections.write(exchange, errorResponses.of(ErrorIndicator.ERROR_TOO_MANY_REQUESTS, HttpStatus.TOO_MANY_REQUESTS), wait);
+        }
+        allowed.get(route).increment();
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (ApiRoute route : ApiRoute.values()) {
+            final String tag = route.name().toLowerCase(Locale.ROOT);
+            FunctionCounter.builder(METRIC_NAME + ".requests", allowed.get(route), LongAdder::sum)
+                .description("Requests seen by the rate limiter, per outcome")
+                .tags("route", tag, "outcome", "ALLOWED")
+                .register(registry);
+            FunctionCounter.builder(METRIC_NAME + ".requests", throttled.get(route), LongAdder::sum)
+                .description("Requests seen by the rate limiter, per outcome")
+                .tags("route", tag, "outcome", "THROTTLED")
+                .register(registry);
+        }
+        Gauge.builder(METRIC_NAME + ".clients", buckets, Cache::estimatedSize)
+            .description("Client buckets currently kept")
+            .register(registry);
+    }
+
+    // The header is only taken from a trusted proxy, and kept in memory, so overly long ones fall back to the address.
+    private String client(ServerHttpRequest request) {
+        if (properties.isTrustClientHeader()) {
+            final String header = request.getHeaders().getFirst(properties.getClientHeader());
+            if (StringUtils.hasText(header) && header.length() <= MAX_CLIENT_LENGTH) {
+                return header;
+            }
+        }
+        final InetSocketAddress address = request.getRemoteAddress();
+        return address == null ? "" : address.getHostString();
+    }
+
+    private record Client(String id, ApiRoute route) {
+    }
+
+    // Nanos between two tokens, and how far ahead of now a full bucket lets the next one be taken.
+    private record Rate(long interval, long tolerance, int capacity) {
+
+        static Rate of(AppProperties.RateLimit.Budget budget) {
+            final long interval = TimeUnit.SECONDS.toNanos(1) / budget.getRefillPerSecond();
+            return new Rate(interval, interval * budget.getCapacity(), budget.getCapacity());
+        }
+
+    }
+
+    /**
+     * Token bucket kept as the single instant it will be full again: taking tokens pushes that instant one
+     * interval further per token, and is refused when it would land more than a full bucket ahead of now.
+     */
+    private static final class TokenBucket {
+
+        private final AtomicLong fullAt;
+
+        TokenBucket(long now) {
+            this.fullAt = new AtomicLong(now);
+        }
+
+        // Returns zero once the tokens are taken, otherwise the nanos to wait before they can be.
+        long take(long now, int tokens, Rate rate) {
+            for (;;) {
+                final long current = fullAt.get();
+                final long next = (current - now > 0 ? current : now) + Math.min(tokens, rate.capacity()) * rate.interval();
+                final long wait = next - now - rate.tolerance();
+                if (wait > 0) {
+                    return wait;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,29 @@
+package io.davidarchanjo.code.filter;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a refusal straight from a filter, telling the client after how many seconds to try again.
+ */
+final class Rejections {
+
+    private Rejections() {
+    }
+
+    static Mono<Void> write(ServerWebExchange exchange, ResponseEntity<byte[]> error, long retryAfterNanos) {
+        final ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(error.getStatusCode());
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, (retryAfterNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1))));
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(Objects.requireNonNull(error.getBody()))));
+    }
+
+}
@@ -0,0 +1,45 @@
+package io.davidarchanjo.code.filter;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Tags every exchange with a request id, taken from the {@code X-Request-Id} header when the caller sends
+ * one, and echoes it back. The id is exposed as an exchange attribute and in the Reactor context under
+ * {@link #REQUEST_ID}, from where it is copied into the logging MDC.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestIdWebFilter implements WebFilter {
+
+    public static final String REQUEST_ID = "requestId";
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    private static final int MAX_LENGTH = 64;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        final String requestId = requestId(exchange.getRequest().getHeaders().getFirst(REQUEST_ID_HEADER));
+        exchange.getAttributes().put(REQUEST_ID, requestId);
+        exchange.getResponse().getHeaders().set(REQUEST_ID_HEADER, requestId);
+        return chain.filter(exchange)
+            .contextWrite(ctx -> ctx.put(REQUEST_ID, requestId));
+    }
+
+    // Caller supplied ids end up in logs, so overly long ones are replaced rather than trusted.
+    private static String requestId(String header) {
+        if (StringUtils.hasText(header) && header.length() <= MAX_LENGTH) {
+            return header;
+        }
+        return Long.toHexString(ThreadLocalRandom.current().nextLong());
+    }
+
+}
@@ -0,0 +1,74 @@
+package io.davidarchanjo.code.handler;
+
+import java.util.List;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import io.davidarchanjo.code.builder.AppTransferCodec;
+import io.davidarchanjo.code.builder.ChangeEvents;
+import io.davidarchanjo.code.event.AppChangeStream;
+import io.davidarchanjo.code.model.dto.AppChangeDTO;
+import io.davidarchanjo.code.model.dto.AppBatchResultDTO;
+import io.davidarchanjo.code.model.dto.AppDTO;
+import io.davidarchanjo.code.service.AppService;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Handler methods of the functional endpoints streaming the changes, a batch or the whole catalogue, which only
+ * the reactive stack serves; those on a single app are in {@link AppHandler}.
+ */
+@RequiredArgsConstructor
+@Component
+public class AppBatchHandler {
+
+    private final AppService service;
+    private final AppChangeStream changeStream;
+    private final AppTransferCodec transferCodec;
+
+    public Mono<ServerResponse> changes(ServerRequest req) {
+        final Flux<AppChangeDTO> changes = changeStream.changes(ChangeEvents.lastEventId(req.headers().firstHeader(ChangeEvents.LAST_EVENT_ID)));
+        return AppRequestHandler.acceptsNdjson(req.headers().accept())
+            ? ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(changes, AppChangeDTO.class)
+            : ServerResponse.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(BodyInserters.fromServerSentEvents(changes.map(ChangeEvents::of)));
+    }
+
+    public Mono<ServerResponse> createAll(ServerRequest req) {
+        return ServerResponse.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(service.saveAll(req.bodyToFlux(AppDTO.class)), AppBatchResultDTO.class);
+    }
+
+    public Mono<ServerResponse> updateAll(ServerRequest req) {
+        return ServerResponse.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(service.updateAll(req.bodyToFlux(AppDTO.class)), AppBatchResultDTO.class);
+    }
+
+    public Mono<ServerResponse> deleteAll(ServerRequest req) {
+        return ServerResponse.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(service.deleteAllById(req.bodyToFlux(Long.class)), AppBatchResultDTO.class);
+    }
+
+    public Mono<ServerResponse> exportAll(ServerRequest req) {
+        final AppTransferCodec.Format format = AppTransferCodec.Format.of(req.headers().accept());
+        return ServerResponse.ok()
+            .contentType(format.getMediaType())
+            .body(BodyInserters.fromDataBuffers(transferCodec.encode(service.findAll(), format, req.exchange().getResponse().bufferFactory())));
+    }
+
+    public Mono<ServerResponse> importAll(ServerRequest req) {
+        final AppTransferCodec.Format format = AppTransferCodec.Format.of(req.headers().contentType().map(List::of).orElse(List.of()));
+        return service.importAll(transferCodec.decode(req.bodyToFlux(DataBuffer.class), format))
+            .elapsed()
+            .flatMap(o -> ServerResponse.ok().bodyValue(AppTransferCodec.summary(o.getT1(), o.getT2())));
+    }
+
+}
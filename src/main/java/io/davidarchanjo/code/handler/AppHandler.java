@@ -2,56 +2,89 @@ package io.davidarchanjo.code.handler;
 
 import java.util.Optional;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
-import org.springframework.web.util.UriComponents;
-import org.springframework.web.util.UriComponentsBuilder;
 
+import io.davidarchanjo.code.builder.ETags;
 import io.davidarchanjo.code.model.dto.AppDTO;
-import io.davidarchanjo.code.service.AppService;
+import io.davidarchanjo.code.model.dto.AppPageDTO;
 import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @RequiredArgsConstructor
 @Component
 public class AppHandler {
     
-    private final AppService service;
+    private final AppRequestHandler requests;
 
     public Mono<ServerResponse> all(ServerRequest req) {
         final Optional<String> name = req.queryParam("appName");
         final Optional<String> version = req.queryParam("appVersion");
 
-        return name.isPresent() && version.isPresent()
-            ? ServerResponse.ok().body(service.findByNameAndVersion(name.get(), version.get()), AppDTO.class)
-            : ServerResponse.ok().body(service.findAll(), AppDTO.class);
+        if (name.isPresent() && version.isPresent()) {
+            return ServerResponse.ok().body(requests.findByNameAndVersion(name.get(), version.get()), AppDTO.class);
+        }
+
+        return AppRequestHandler.acceptsNdjson(req.headers().accept())
+            ? ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(requests.findAll(), AppDTO.class)
+            : requests.findPage(req.queryParam("after").orElse(null), req.queryParam("limit").orElse(null))
+                .flatMap(o -> page(req, o, "after"));
+    }
+
+    public Mono<ServerResponse> search(ServerRequest req) {
+        return requests.search(
+                req.queryParam("appName").orElse(null),
+                req.queryParam("devName").orElse(null),
+                req.queryParam("minVersion").orElse(null),
+                req.queryParam("maxVersion").orElse(null),
+                req.queryParam("sort").orElse(null),
+                req.queryParam("cursor").orElse(null),
+                req.queryParam("limit").orElse(null))
+            .flatMap(o -> page(req, o, "cursor"));
     }
 
     public Mono<ServerResponse> create(ServerRequest req) {
-        return req.bodyToMono(AppDTO.class)
-            .flatMap(service::save)
-            .flatMap(o -> {
-                final UriComponents uri = UriComponentsBuilder
-                    .fromPath(req.path()+"/{id}")
-                    .buildAndExpand(o.getId());
-                return ServerResponse.created(uri.toUri()).build();
-            });
+        return requests.create(req.bodyToMono(AppDTO.class))
+            .flatMap(o -> ServerResponse.created(AppRequestHandler.location(req.path(), o)).bodyValue(o));
     }
 
     public Mono<ServerResponse> get(ServerRequest req) {
-        return service.findById(Long.valueOf(req.pathVariable("id")))
-            .flatMap(o -> ServerResponse.ok().body(Mono.just(o), AppDTO.class));
+        return requests.findById(req.pathVariable("id"))
+            .flatMap(o -> req.checkNotModified(ETags.of(o))
+                .switchIfEmpty(ServerResponse.ok().eTag(ETags.of(o)).bodyValue(o)));
     }
 
     public Mono<ServerResponse> update(ServerRequest req) {
-        return req.bodyToMono(AppDTO.class)
-            .flatMap(o -> service.updateById(Long.valueOf(req.pathVariable("id")), o))
-            .flatMap(__ -> ServerResponse.noContent().build());
+        return requests.update(req.pathVariable("id"), req.bodyToMono(AppDTO.class), ifMatch(req))
+            .then(ServerResponse.noContent().build());
+    }
+
+    public Mono<ServerResponse> patch(ServerRequest req) {
+        return requests.patch(req.pathVariable("id"), req.bodyToMono(AppDTO.class), ifMatch(req))
+            .then(ServerResponse.noContent().build());
     }
 
     public Mono<ServerResponse> delete(ServerRequest req) {
-        return service.deleteById(Long.valueOf(req.pathVariable("id")))
-            .flatMap(__ -> ServerResponse.noContent().build());
+        return requests.delete(req.pathVariable("id"), ifMatch(req))
+            .then(ServerResponse.noContent().build());
     }
+
+    private Mono<ServerResponse> page(ServerRequest req, AppPageDTO page, String nextParam) {
+        final ServerResponse.BodyBuilder response = ServerResponse.ok();
+        final String link = AppRequestHandler.nextLink(req.path(), req.queryParams(), page, nextParam);
+        if (link != null) {
+            response.header(HttpHeaders.LINK, link);
+        }
+        return response.body(Flux.fromIterable(page.getContent()), AppDTO.class);
+    }
+
+    // A list may be spread over several header lines as well as within one.
+    private static String ifMatch(ServerRequest req) {
+        return String.join(",", req.headers().header(HttpHeaders.IF_MATCH));
+    }
+
 }
@@ -0,0 +1,199 @@
+package io.davidarchanjo.code.handler;
+
+import io.davidarchanjo.code.builder.ETags;
+import io.davidarchanjo.code.builder.Patches;
+import io.davidarchanjo.code.exception.AppInvalidInputException;
+import io.davidarchanjo.code.model.dto.AppDTO;
+import io.davidarchanjo.code.model.dto.AppPageDTO;
+import io.davidarchanjo.code.model.dto.AppSearchDTO;
+import io.davidarchanjo.code.service.SingleAppService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.MessageSource;
+import org.springframework.core.codec.CodecException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ServerWebInputException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The single operations both endpoint families are thin adapters over, taking the raw path variables, query
+ * parameters and headers. Ids and numbers are parsed by hand, so malformed ones are answered as invalid input
+ * without a {@link NumberFormatException} being thrown first. Bodies are validated here once, with the shared
+ * validator and its cached constraints, and unreadable ones are reported as invalid input too, so both families
+ * answer every client error the same way.
+ */
+@RequiredArgsConstructor
+@Component
+public class AppRequestHandler {
+
+    private final SingleAppService service;
+    private final Validator validator;
+    private final MessageSource messageSource;
+
+    public Mono<AppDTO> create(Mono<AppDTO> body) {
+        return validated(body, false)
+            .flatMap(service::save);
+    }
+
+    public Mono<AppDTO> findById(String id) {
+        return id(id).flatMap(service::findById);
+    }
+
+    public Mono<AppDTO> findByNameAndVersion(String name, String version) {
+        return service.findByNameAndVersion(name, version);
+    }
+
+    public Flux<AppDTO> findAll() {
+        return service.findAll();
+    }
+
+    public Mono<AppPageDTO> findPage(String after, String limit) {
+        final Long afterId = after == null ? null : parseLong(after);
+        final Integer size = limit == null ? null : parseInt(limit);
+        if (after != null && afterId == null) {
+            return Mono.error(new AppInvalidInputException("Invalid after - {0}", after));
+        }
+        if (limit != null && size == null) {
+            return Mono.error(new AppInvalidInputException("Invalid limit - {0}", limit));
+        }
+        return service.findPage(afterId, size);
+    }
+
+    public Mono<AppPageDTO> search(String name, String author, String minVersion, String maxVersion, String sort, String cursor, String limit) {
+        final Integer size = limit == null ? null : parseInt(limit);
+        if (limit != null && size == null) {
+            return Mono.error(new AppInvalidInputException("Invalid limit - {0}", limit));
+        }
+        return service.search(AppSearchDTO.builder()
+            .name(name)
+            .author(author)
+            .minVersion(minVersion)
+            .maxVersion(maxVersion)
+            .sort(sort)
+            .cursor(cursor)
+            .limit(size)
+            .build());
+    }
+
+    public Mono<Void> update(String id, Mono<AppDTO> body, String ifMatch) {
+        return id(id).flatMap(o -> validated(body, false)
+            .flatMap(dto -> matching(o, ifMatch, revision -> service.updateById(o, dto, revision))));
+    }
+
+    public Mono<Void> patch(String id, Mono<AppDTO> body, String ifMatch) {
+        return id(id).flatMap(o -> validated(body, true)
+            .flatMap(dto -> matching(o, ifMatch, revision -> service.updateById(o, dto, revision))));
+    }
+
+    public Mono<Void> delete(String id, String ifMatch) {
+        return id(id).flatMap(o -> matching(o, ifMatch, revision -> service.deleteById(o, revision)));
+    }
+
+    public static boolean acceptsNdjson(List<MediaType> accept) {
+        for (MediaType mediaType : accept) {
+            if (MediaType.APPLICATION_NDJSON.equalsTypeAndSubtype(mediaType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@code Link} header pointing to the page after the given one, the same request with {@code nextParam}
+     * set to where it ends, or {@code null} when it is the last.
+     */
+    public static String nextLink(String path, MultiValueMap<String, String> query, AppPageDTO page, String nextParam) {
+        if (page.getNext() == null) {
+            return null;
+        }
+        final String uri = UriComponentsBuilder
+            .fromPath(path)
+            .queryParams(query)
+            .replaceQueryParam(nextParam, page.getNext())
+            .build()
+            .toUriString();
+        return "<" + uri + ">; rel=\"next\"";
+    }
+
+    public static URI location(String path, AppDTO dto) {
+        return URI.create(path + "/" + dto.getId());
+    }
+
+    private static Mono<Long> id(String id) {
+        final Long parsed = parseLong(id);
+        return parsed == null
+            ? Mono.error(new AppInvalidInputException("Invalid id - {0}", id))
+            : Mono.just(parsed);
+    }
+
+    /**
+     * Runs a write conditioned on the revision {@code If-Match} requires, or on none when it accepts any. The write
+     * checks a single revision itself; among several, the one the app is at is checked if listed, so the write
+     * still fails should the app move on meanwhile.
+     */
+    private Mono<Void> matching(Long id, String ifMatch, Function<Long, Mono<Void>> write) {
+        final Set<Long> revisions = ETags.revisions(ifMatch);
+        if (revisions == null) {
+            return write.apply(null);
+        }
+        if (revisions.size() < 2) {
+            return write.apply(revisions.isEmpty() ? ETags.NO_MATCH : revisions.iterator().next());
+        }
+        return service.findById(id)
+            .map(o -> revisions.contains(o.getRevision()) ? o.getRevision() : ETags.NO_MATCH)
+            .flatMap(write);
+    }
+
+    // A patch only carries the fields to change, so only those present are held to the constraints.
+    private Mono<AppDTO> validated(Mono<AppDTO> body, boolean partial) {
+        return body
+            .onErrorMap(o -> o instanceof CodecException || o instanceof ServerWebInputException, __ -> new AppInvalidInputException("Unreadable app"))
+            .switchIfEmpty(Mono.error(() -> new AppInvalidInputException("Missing app")))
+            .flatMap(dto -> {
+                final Set<ConstraintViolation<AppDTO>> violations = partial ? Patches.violations(validator, dto) : validator.validate(dto);
+                return violations.isEmpty() ? Mono.just(dto) : Mono.error(new AppInvalidInputException(details(violations)));
+            });
+    }
+
+    private List<String> details(Set<ConstraintViolation<AppDTO>> violations) {
+        final List<String> details = new ArrayList<>(violations.size());
+        for (ConstraintViolation<AppDTO> violation : violations) {
+            details.add(messageSource.getMessage("error.input.validation", new Object[]{violation.getPropertyPath().toString(), violation.getMessage()}, Locale.getDefault()));
+        }
+        return details;
+    }
+
+    // Decimal digits only, at most Long.MAX_VALUE; anything else, including a sign, is not an id.
+    private static Long parseLong(String value) {
+        if (value.isEmpty() || value.length() > 19) {
+            return null;
+        }
+        long result = 0;
+        for (int i = 0; i < value.length(); i++) {
+            final int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result > (Long.MAX_VALUE - digit) / 10) {
+                return null;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    private static Integer parseInt(String value) {
+        final Long parsed = parseLong(value);
+        return parsed == null || parsed > Integer.MAX_VALUE ? null : parsed.intValue();
+    }
+
+}
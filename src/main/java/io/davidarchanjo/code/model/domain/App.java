@@ -4,6 +4,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 
@@ -24,6 +25,13 @@ public class App {
   @Column(value = "version")
   private String version;
 
+  @Column(value = "version_key")
+  private String versionKey;
+
+  @Version
+  @Column(value = "revision")
+  private Long revision;
+
   @Builder
   public App(Long id, String name, String author, String version) {
     this.id = id;
@@ -0,0 +1,15 @@
+package io.davidarchanjo.code.model.domain;
+
+public enum AppChangeType {
+
+    CREATED,
+    UPDATED,
+    DELETED,
+
+    /**
+     * The apps changed in a way the stream does not describe, such as a bulk import, or the events after the
+     * one a client resumed from are no longer retained, so it has to reload the apps.
+     */
+    RESET
+
+}
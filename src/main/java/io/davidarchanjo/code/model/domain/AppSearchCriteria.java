@@ -0,0 +1,27 @@
+package io.davidarchanjo.code.model.domain;
+
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.lang.Nullable;
+
+@Value
+@Builder
+public class AppSearchCriteria {
+
+    @Nullable
+    private String namePrefix;
+    @Nullable
+    private String author;
+    @Nullable
+    private String minVersionKey;
+    @Nullable
+    private String maxVersionKey;
+    @Builder.Default
+    private AppSort sort = AppSort.ID;
+    private boolean descending;
+    @Nullable
+    private Long afterId;
+    @Nullable
+    private String afterKey;
+
+}
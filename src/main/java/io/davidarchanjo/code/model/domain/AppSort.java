@@ -0,0 +1,31 @@
+package io.davidarchanjo.code.model.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+@Getter
+@AllArgsConstructor
+public enum AppSort {
+
+    ID("id", "id", o -> ""),
+    NAME("appName", "name", App::getName),
+    AUTHOR("devName", "author", App::getAuthor),
+    VERSION("appVersion", "versionKey", App::getVersionKey);
+
+    private String parameter;
+    private String property;
+    private Function<App, String> key;
+
+    public static Optional<AppSort> of(String parameter) {
+        for (AppSort sort : values()) {
+            if (sort.parameter.equals(parameter)) {
+                return Optional.of(sort);
+            }
+        }
+        return Optional.empty();
+    }
+
+}
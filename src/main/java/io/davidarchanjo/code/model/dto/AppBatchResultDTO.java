@@ -0,0 +1,18 @@
+package io.davidarchanjo.code.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AppBatchResultDTO {
+
+    private long index;
+    private int status;
+    private Long id;
+    private AppDTO app;
+    private ErrorDTO error;
+
+}
@@ -0,0 +1,18 @@
+package io.davidarchanjo.code.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.davidarchanjo.code.model.domain.AppChangeType;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AppChangeDTO {
+
+    private long id;
+    private AppChangeType type;
+    private Long appId;
+    private AppDTO app;
+
+}
@@ -1,5 +1,6 @@
 package io.davidarchanjo.code.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Builder;
 import lombok.Data;
@@ -29,6 +30,9 @@ public class AppDTO {
     @JsonProperty("appVersion")
     private String version;
 
+    @JsonIgnore
+    private Long revision;
+
     @Builder
     public AppDTO(String name, String version, String author) {
         this.name = name;
@@ -0,0 +1,20 @@
+package io.davidarchanjo.code.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * What another instance's write made stale: the app with {@code appId}, the lookup by {@code appName} and
+ * {@code appVersion}, or, with neither set, everything.
+ */
+@Value
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AppInvalidationDTO {
+
+    private Long appId;
+    private String appName;
+    private String appVersion;
+
+}
@@ -0,0 +1,17 @@
+package io.davidarchanjo.code.model.dto;
+
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+@Value
+@Builder
+public class AppPageDTO {
+
+    private List<AppDTO> content;
+    @Nullable
+    private String next;
+
+}
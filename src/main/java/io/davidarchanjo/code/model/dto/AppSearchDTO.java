@@ -0,0 +1,26 @@
+package io.davidarchanjo.code.model.dto;
+
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.lang.Nullable;
+
+@Value
+@Builder
+public class AppSearchDTO {
+
+    @Nullable
+    private String name;
+    @Nullable
+    private String author;
+    @Nullable
+    private String minVersion;
+    @Nullable
+    private String maxVersion;
+    @Nullable
+    private String sort;
+    @Nullable
+    private String cursor;
+    @Nullable
+    private Integer limit;
+
+}
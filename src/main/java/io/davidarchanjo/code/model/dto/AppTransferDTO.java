@@ -0,0 +1,14 @@
+package io.davidarchanjo.code.model.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class AppTransferDTO {
+
+    private long rows;
+    private long millis;
+    private long rowsPerSecond;
+
+}
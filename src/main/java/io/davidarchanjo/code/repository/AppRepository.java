@@ -1,12 +1,21 @@
 package io.davidarchanjo.code.repository;
 
 import io.davidarchanjo.code.model.domain.App;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import reactor.core.publisher.Mono;
 
-public interface AppRepository extends ReactiveCrudRepository<App, Long> {
+public interface AppRepository extends ReactiveCrudRepository<App, Long>, AppRepositoryCustom {
 
-    Mono<App> findByName(String name);
     Mono<App> findByNameAndVersion(String name, String version);
 
-}
\ No newline at end of file
+    @Modifying
+    @Query("DELETE FROM app WHERE id = :id")
+    Mono<Integer> removeById(Long id);
+
+    @Modifying
+    @Query("DELETE FROM app WHERE id = :id AND revision = :revision")
+    Mono<Integer> removeByIdAndRevision(Long id, Long revision);
+
+}
@@ -0,0 +1,23 @@
+package io.davidarchanjo.code.repository;
+
+import io.davidarchanjo.code.model.domain.App;
+import io.davidarchanjo.code.model.domain.AppSearchCriteria;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface AppRepositoryCustom {
+
+    Flux<App> findPage(long after, int limit);
+    Flux<App> search(AppSearchCriteria criteria, int limit);
+    Mono<Integer> updateNonNullColumns(App app, Long expectedRevision);
+    Flux<String> findExistingNames(Collection<String> names);
+    Flux<Long> insertAll(List<App> apps);
+    Flux<Integer> updateAll(List<App> apps);
+    Flux<Integer> deleteAllById(List<Long> ids);
+    Flux<Integer> mergeAll(List<App> apps);
+    Mono<Long> reserveIds(int count);
+
+}
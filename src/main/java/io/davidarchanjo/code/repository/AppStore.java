@@ -0,0 +1,41 @@
+package io.davidarchanjo.code.repository;
+
+import io.davidarchanjo.code.model.domain.App;
+import io.davidarchanjo.code.model.domain.AppSearchCriteria;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Storage the service keeps the apps in, selected through {@code app.store.type}. Names are unique: a write
+ * that would give an app the name of another one fails with a
+ * {@link org.springframework.dao.DuplicateKeyException}. The batch writes that the service relies on being
+ * all or nothing, {@link #insertAll}, {@link #updateAll} and {@link #mergeAll}, leave nothing behind when they
+ * fail. Apps are written under ids the caller has reserved through {@link #reserveIds}, as the store generates
+ * none.
+ */
+public interface AppStore {
+
+    Mono<App> insert(App app);
+    Mono<App> findById(Long id);
+    Mono<Boolean> existsById(Long id);
+    Mono<App> findByNameAndVersion(String name, String version);
+    Flux<App> findPage(long after, int limit);
+    Flux<App> search(AppSearchCriteria criteria, int limit);
+    Mono<Integer> updateNonNullColumns(App app, Long expectedRevision);
+    Mono<Integer> deleteById(Long id, Long expectedRevision);
+    Flux<String> findExistingNames(Collection<String> names);
+    Flux<Long> insertAll(List<App> apps);
+    Flux<Integer> updateAll(List<App> apps);
+    Flux<Integer> deleteAllById(List<Long> ids);
+    Flux<Integer> mergeAll(List<App> apps);
+
+    /**
+     * Reserves {@code count} consecutive ids, answering the first, that are not given to any other caller,
+     * in this instance or in any other sharing the store.
+     */
+    Mono<Long> reserveIds(int count);
+
+}
@@ -0,0 +1,31 @@
+package io.davidarchanjo.code.repository;
+
+import io.davidarchanjo.code.model.domain.App;
+import io.davidarchanjo.code.model.domain.AppSearchCriteria;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Imperative counterpart of {@link AppStore} for the blocking execution mode, over the same tables: every call
+ * holds its thread until the database answers. Names are unique, and ids are reserved by the caller, as for
+ * {@link AppStore}.
+ */
+public interface BlockingAppStore {
+
+    App insert(App app);
+    Optional<App> findById(Long id);
+    boolean existsById(Long id);
+    Optional<App> findByNameAndVersion(String name, String version);
+    List<App> findPage(long after, int limit);
+    List<App> search(AppSearchCriteria criteria, int limit);
+    int updateNonNullColumns(App app, Long expectedRevision);
+    int deleteById(Long id, Long expectedRevision);
+
+    /**
+     * Reserves {@code count} consecutive ids, answering the first, from the same counter as
+     * {@link AppStore#reserveIds}.
+     */
+    long reserveIds(int count);
+
+}
@@ -0,0 +1,268 @@
+package io.davidarchanjo.code.repository.impl;
+
+import io.davidarchanjo.code.model.domain.App;
+import io.davidarchanjo.code.model.domain.AppSearchCriteria;
+import io.davidarchanjo.code.model.domain.AppSort;
+import io.davidarchanjo.code.repository.AppRepositoryCustom;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.springframework.data.relational.core.query.Criteria.where;
+import static org.springframework.data.relational.core.query.Query.query;
+
+@RequiredArgsConstructor
+public class AppRepositoryCustomImpl implements AppRepositoryCustom {
+
+    private static final String SELECT_EXISTING_NAMES = "SELECT name FROM app WHERE name IN (:names)";
+    private static final String INSERT = "INSERT INTO app (id, name, author, version, version_key) VALUES ($1, $2, $3, $4, $5)";
+    private static final String UPDATE = "UPDATE app SET name = COALESCE($1, name), author = COALESCE($2, author), version = COALESCE($3, version), version_key = COALESCE($4, version_key), revision = revision + 1 WHERE id = $5";
+    private static final String DELETE = "DELETE FROM app WHERE id = $1";
+    private static final String MERGE = "MERGE INTO app (id, name, author, version, version_key, revision) KEY (id) VALUES ($1, $2, $3, $4, $5, $6)";
+    private static final String RESERVE_IDS = "UPDATE id_block SET next_id = next_id + $1 WHERE name = 'app'";
+    private static final String NEXT_ID = "SELECT next_id FROM id_block WHERE name = 'app'";
+    private static final String FOLLOW_IDS = "UPDATE id_block SET next_id = GREATEST(next_id, $1) WHERE name = 'app'";
+
+    private final DatabaseClient databaseClient;
+    private final R2dbcEntityTemplate template;
+
+    @Override
+    public Flux<App> findPage(long after, int limit) {
+        return template.select(App.class)
+            .matching(query(where("id").greaterThan(after))
+                .sort(Sort.by("id"))
+                .limit(limit))
+            .all();
+    }
+
+    @Override
+    public Flux<App> search(AppSearchCriteria criteria, int limit) {
+        Criteria where = Criteria.empty();
+        if (criteria.getNamePrefix() != null) {
+            where = where.and("name").like(escapeLike(criteria.getNamePrefix()) + "%");
+        }
+        if (criteria.getAuthor() != null) {
+            where = where.and("author").is(criteria.getAuthor());
+        }
+        if (criteria.getMinVersionKey() != null) {
+            where = where.and("versionKey").greaterThanOrEquals(criteria.getMinVersionKey());
+        }
+        if (criteria.getMaxVersionKey() != null) {
+            where = where.and("versionKey").lessThanOrEquals(criteria.getMaxVersionKey());
+        }
+        if (criteria.getAfterId() != null) {
+            where = where.and(after(criteria));
+        }
+
+        final Sort.Direction direction = criteria.isDescending() ? Sort.Direction.DESC : Sort.Direction.ASC;
+        final Sort sort = criteria.getSort() == AppSort.ID
+            ? Sort.by(direction, "id")
+            : Sort.by(direction, criteria.getSort().getProperty(), "id");
+        return template.select(App.class)
+            .matching(query(where).sort(sort).limit(limit))
+            .all();
+    }
+
+    @Override
+    public Mono<Integer> updateNonNullColumns(App app, Long expectedRevision) {
+        final Map<String, Object> columns = new LinkedHashMap<>();
+        if (app.getName() != null) {
+            columns.put("name", app.getName());
+        }
+        if (app.getAuthor() != null) {
+            columns.put("author", app.getAuthor());
+        }
+        if (app.getVersion() != null) {
+            columns.put("version", app.getVersion());
+            columns.put("version_key", app.getVersionKey());
+        }
+
+        final StringBuilder sql = new StringBuilder("UPDATE app SET ");
+        columns.keySet().forEach(o -> sql.append(o).append(" = :").append(o).append(", "));
+        sql.append("revision = revision + 1 WHERE id = :id");
+        if (expectedRevision != null) {
+            sql.append(" AND revision = :revision");
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString()).bind("id", app.getId());
+        for (Map.Entry<String, Object> column : columns.entrySet()) {
+            spec = spec.bind(column.getKey(), column.getValue());
+        }
+        if (expectedRevision != null) {
+            spec = spec.bind("revision", expectedRevision);
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    @Override
+    public Flux<String> findExistingNames(Collection<String> names) {
+        if (names.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.sql(SELECT_EXISTING_NAMES)
+            .bind("names", padded(names))
+            .map(row -> Objects.requireNonNull(row.get("name", String.class)))
+            .all();
+    }
+
+    @Override
+    public Flux<Long> insertAll(List<App> apps) {
+        if (apps.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.inConnectionMany(connection -> {
+            final Statement statement = connection.createStatement(INSERT);
+            for (int i = 0; i < apps.size(); i++) {
+                final App app = apps.get(i);
+                if (i > 0) {
+                    statement.add();
+                }
+                statement.bind(0, app.getId());
+                bind(statement, 1, app.getName());
+                bind(statement, 2, app.getAuthor());
+                bind(statement, 3, app.getVersion());
+                bind(statement, 4, app.getVersionKey());
+            }
+            return Flux.from(statement.execute())
+                .concatMap(Result::getRowsUpdated)
+                .thenMany(Flux.fromIterable(apps).map(App::getId));
+        });
+    }
+
+    @Override
+    public Flux<Integer> updateAll(List<App> apps) {
+        if (apps.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.inConnectionMany(connection -> {
+            final Statement statement = connection.createStatement(UPDATE);
+            for (int i = 0; i < apps.size(); i++) {
+                final App app = apps.get(i);
+                if (i > 0) {
+                    statement.add();
+                }
+                bind(statement, 0, app.getName());
+                bind(statement, 1, app.getAuthor());
+                bind(statement, 2, app.getVersion());
+                bind(statement, 3, app.getVersionKey());
+                statement.bind(4, app.getId());
+            }
+            return Flux.from(statement.execute())
+                .concatMap(Result::getRowsUpdated);
+        });
+    }
+
+    @Override
+    public Flux<Integer> deleteAllById(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.inConnectionMany(connection -> {
+            final Statement statement = connection.createStatement(DELETE);
+            for (int i = 0; i < ids.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                statement.bind(0, ids.get(i));
+            }
+            return Flux.from(statement.execute())
+                .concatMap(Result::getRowsUpdated);
+        });
+    }
+
+    // Ids written as given move the block counter past them, so that blocks reserved from then on avoid them.
+    @Override
+    public Flux<Integer> mergeAll(List<App> apps) {
+        if (apps.isEmpty()) {
+            return Flux.empty();
+        }
+        final long maxId = apps.stream().mapToLong(App::getId).max().getAsLong();
+        return databaseClient.inConnectionMany(connection -> {
+            final Statement statement = connection.createStatement(MERGE);
+            for (int i = 0; i < apps.size(); i++) {
+                final App app = apps.get(i);
+                if (i > 0) {
+                    statement.add();
+                }
+                statement.bind(0, app.getId());
+                bind(statement, 1, app.getName());
+                bind(statement, 2, app.getAuthor());
+                bind(statement, 3, app.getVersion());
+                bind(statement, 4, app.getVersionKey());
+                statement.bind(5, app.getRevision() == null ? 0L : app.getRevision());
+            }
+            return Flux.from(statement.execute())
+                .concatMap(Result::getRowsUpdated);
+        }).concatWith(databaseClient.sql(FOLLOW_IDS)
+            .bind(0, maxId + 1)
+            .fetch()
+            .rowsUpdated()
+            .then(Mono.empty()));
+    }
+
+    // Moves the counter past the block and reads where it ended; only safe within a transaction.
+    @Override
+    public Mono<Long> reserveIds(int count) {
+        return databaseClient.sql(RESERVE_IDS)
+            .bind(0, count)
+            .fetch()
+            .rowsUpdated()
+            .then(databaseClient.sql(NEXT_ID)
+                .map(row -> Objects.requireNonNull(row.get("next_id", Long.class)))
+                .one())
+            .map(next -> next - count);
+    }
+
+    // Rounding the IN list up to a power of two keeps the number of distinct statements, and so of
+    // cached query plans, logarithmic in the batch size; the repeated name does not change the result.
+    private static List<String> padded(Collection<String> names) {
+        final List<String> padded = new ArrayList<>(names);
+        final int size = Integer.highestOneBit(padded.size() - 1) << 1;
+        while (padded.size() < size) {
+            padded.add(padded.get(0));
+        }
+        return padded;
+    }
+
+    // Keyset predicate over (sort key, id), so every page is an index range scan whatever its depth.
+    private static Criteria after(AppSearchCriteria criteria) {
+        final boolean descending = criteria.isDescending();
+        final Criteria afterId = descending
+            ? where("id").lessThan(criteria.getAfterId())
+            : where("id").greaterThan(criteria.getAfterId());
+        if (criteria.getSort() == AppSort.ID) {
+            return afterId;
+        }
+        final String property = criteria.getSort().getProperty();
+        final Criteria afterKey = descending
+            ? where(property).lessThan(criteria.getAfterKey())
+            : where(property).greaterThan(criteria.getAfterKey());
+        return afterKey.or(where(property).is(criteria.getAfterKey()).and(afterId));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static void bind(Statement statement, int index, String value) {
+        if (value == null) {
+            statement.bindNull(index, String.class);
+        } else {
+            statement.bind(index, value);
+        }
+    }
+
+}
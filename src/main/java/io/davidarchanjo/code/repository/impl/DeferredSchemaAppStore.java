@@ -0,0 +1,118 @@
+package io.davidarchanjo.code.repository.impl;
+
+import io.davidarchanjo.code.model.domain.App;
+import io.davidarchanjo.code.model.domain.AppSearchCriteria;
+import io.davidarchanjo.code.repository.AppStore;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Takes applying the schema off the startup path: it starts in the background as soon as the store is created,
+ * while the rest of the application starts, and calls arriving before it is in place wait for it. A failed
+ * run is tried again by the next call, and once it has succeeded calls go straight through to the store.
+ */
+@Slf4j
+public class DeferredSchemaAppStore implements AppStore {
+
+    private static final Duration FOREVER = Duration.ofMillis(Long.MAX_VALUE);
+
+    private final AppStore delegate;
+    private final Mono<Void> schema;
+    private volatile boolean ready;
+
+    public DeferredSchemaAppStore(AppStore delegate, Mono<Void> schema) {
+        this.delegate = delegate;
+        // The driver runs statements on the subscribing thread, which must not be the one starting the application.
+        this.schema = schema
+            .subscribeOn(Schedulers.boundedElastic())
+            .doOnSuccess(__ -> ready = true)
+            .cache(__ -> FOREVER, e -> Duration.ZERO, () -> FOREVER);
+        this.schema.subscribe(null, e -> log.warn("Applying the schema failed, the next call tries again", e));
+    }
+
+    @Override
+    public Mono<App> insert(App app) {
+        return afterSchema(() -> delegate.insert(app));
+    }
+
+    @Override
+    public Mono<App> findById(Long id) {
+        return afterSchema(() -> delegate.findById(id));
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Long id) {
+        return afterSchema(() -> delegate.existsById(id));
+    }
+
+    @Override
+    public Mono<App> findByNameAndVersion(String name, String version) {
+        return afterSchema(() -> delegate.findByNameAndVersion(name, version));
+    }
+
+    @Override
+    public Flux<App> findPage(long after, int limit) {
+        return afterSchemaMany(() -> delegate.findPage(after, limit));
+    }
+
+    @Override
+    public Flux<App> search(AppSearchCriteria criteria, int limit) {
+        return afterSchemaMany(() -> delegate.search(criteria, limit));
+    }
+
+    @Override
+    public Mono<Integer> updateNonNullColumns(App app, Long expectedRevision) {
+        return afterSchema(() -> delegate.updateNonNullColumns(app, expectedRevision));
+    }
+
+    @Override
+    public Mono<Integer> deleteById(Long id, Long expectedRevision) {
+        return afterSchema(() -> delegate.deleteById(id, expectedRevision));
+    }
+
+    @Override
+    public Flux<String> findExistingNames(Collection<String> names) {
+        return afterSchemaMany(() -> delegate.findExistingNames(names));
+    }
+
+    @Override
+    public Flux<Long> insertAll(List<App> apps) {
+        return afterSchemaMany(() -> delegate.insertAll(apps));
+    }
+
+    @Override
+    public Flux<Integer> updateAll(List<App> apps) {
+        return afterSchemaMany(() -> delegate.updateAll(apps));
+    }
+
+    @Override
+    public Flux<Integer> deleteAllById(List<Long> ids) {
+        return afterSchemaMany(() -> delegate.deleteAllById(ids));
+    }
+
+    @Override
+    public Flux<Integer> mergeAll(List<App> apps) {
+        return afterSchemaMany(() -> delegate.mergeAll(apps));
+    }
+
+    @Override
+    public Mono<Long> reserveIds(int count) {
+        return afterSchema(() -> delegate.reserveIds(count));
+    }
+
+    private <T> Mono<T> afterSchema(Supplier<Mono<T>> call) {
+        return ready ? call.get() : schema.then(Mono.defer(call));
+    }
+
+    private <T> Flux<T> afterSchemaMany(Supplier<Flux<T>> call) {
+        return ready ? call.get() : schema.thenMany(Flux.defer(call));
+    }
+
+}
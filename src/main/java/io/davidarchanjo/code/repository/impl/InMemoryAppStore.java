@@ -0,0 +1,344 @@
+package io.davidarchanjo.code.repository.impl;
+
+import io.davidarchanjo.code.model.domain.App;
+import io.davidarchanjo.code.model.domain.AppSearchCriteria;
+import io.davidarchanjo.code.model.domain.AppSort;
+import io.davidarchanjo.code.repository.AppStore;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the apps in process, for deployments and load tests that do without a database. Rows live in a skip
+ * list keyed by id, so pages come out in id order, and a second one maps every name to the id owning it, which
+ * enforces unique names and serves the lookups by name and version, the name prefix searches and the name
+ * ordering. Nothing locks: a write claims the name with {@code putIfAbsent} and swaps the row in with a
+ * compare-and-set, retrying when another write got there first. Failed batch writes are undone, but are not
+ * isolated from concurrent readers meanwhile. Only copies are handed out, as callers mutate what they get.
+ */
+public class InMemoryAppStore implements AppStore {
+
+    private final ConcurrentSkipListMap<Long, App> rows = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, Long> names = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Override
+    public Mono<App> insert(App app) {
+        return Mono.fromCallable(() -> copy(insertRow(app, 0L)));
+    }
+
+    @Override
+    public Mono<App> findById(Long id) {
+        return Mono.fromSupplier(() -> rows.get(id))
+            .map(InMemoryAppStore::copy);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Long id) {
+        return Mono.fromSupplier(() -> rows.containsKey(id));
+    }
+
+    @Override
+    public Mono<App> findByNameAndVersion(String name, String version) {
+        return Mono.fromSupplier(() -> {
+            final Long id = names.get(name);
+            final App app = id == null ? null : rows.get(id);
+            return app != null && app.getName().equals(name) && app.getVersion().equals(version) ? copy(app) : null;
+        });
+    }
+
+    @Override
+    public Flux<App> findPage(long after, int limit) {
+        return Flux.defer(() -> Flux.fromIterable(rows.tailMap(after, false).values()))
+            .take(limit)
+            .map(InMemoryAppStore::copy);
+    }
+
+    @Override
+    public Flux<App> search(AppSearchCriteria criteria, int limit) {
+        return Flux.defer(() -> Flux.fromStream(candidates(criteria)
+            .filter(matches(criteria))
+            .limit(limit)
+            .map(InMemoryAppStore::copy)));
+    }
+
+    @Override
+    public Mono<Integer> updateNonNullColumns(App app, Long expectedRevision) {
+        return Mono.fromCallable(() -> update(app, expectedRevision));
+    }
+
+    @Override
+    public Mono<Integer> deleteById(Long id, Long expectedRevision) {
+        return Mono.fromSupplier(() -> delete(id, expectedRevision));
+    }
+
+    @Override
+    public Flux<String> findExistingNames(Collection<String> names) {
+        return Flux.defer(() -> Flux.fromStream(names.stream().filter(this.names::containsKey)));
+    }
+
+    @Override
+    public Flux<Long> insertAll(List<App> apps) {
+        return Flux.defer(() -> {
+            final List<App> inserted = new ArrayList<>(apps.size());
+            try {
+                for (App app : apps) {
+                    inserted.add(insertRow(app, 0L));
+                }
+            } catch (DuplicateKeyException e) {
+                inserted.forEach(o -> restore(o, null));
+                return Flux.error(e);
+            }
+            return Flux.fromIterable(inserted).map(App::getId);
+        });
+    }
+
+    @Override
+    public Flux<Integer> updateAll(List<App> apps) {
+        return Flux.defer(() -> {
+            final List<App[]> updated = new ArrayList<>(apps.size());
+            final List<Integer> rows = new ArrayList<>(apps.size());
+            try {
+                for (App app : apps) {
+                    final App[] row = updateRow(app, null);
+                    if (row != null) {
+                        updated.add(row);
+                    }
+                    rows.add(row == null ? 0 : 1);
+                }
+            } catch (DuplicateKeyException e) {
+                for (int i = updated.size() - 1; i >= 0; i--) {
+                    restore(updated.get(i)[0], updated.get(i)[1]);
+                }
+                return Flux.error(e);
+            }
+            return Flux.fromIterable(rows);
+        });
+    }
+
+    @Override
+    public Flux<Integer> deleteAllById(List<Long> ids) {
+        return Flux.fromIterable(ids)
+            .map(o -> delete(o, null));
+    }
+
+    @Override
+    public Flux<Integer> mergeAll(List<App> apps) {
+        return Flux.defer(() -> {
+            final List<App[]> merged = new ArrayList<>(apps.size());
+            try {
+                for (App app : apps) {
+                    merged.add(mergeRow(app));
+                }
+            } catch (DuplicateKeyException e) {
+                for (int i = merged.size() - 1; i >= 0; i--) {
+                    restore(merged.get(i)[0], merged.get(i)[1]);
+                }
+                return Flux.error(e);
+            }
+            return Flux.fromIterable(merged).map(__ -> 1);
+        });
+    }
+
+    @Override
+    public Mono<Long> reserveIds(int count) {
+        return Mono.fromSupplier(() -> sequence.getAndAdd(count) + 1);
+    }
+
+    private App insertRow(App app, long revision) {
+        final long id = app.getId() == null ? sequence.incrementAndGet() : follow(app.getId());
+        if (names.putIfAbsent(app.getName(), id) != null) {
+            throw duplicate(app.getName());
+        }
+        final App row = copy(app);
+        row.setId(id);
+        row.setRevision(revision);
+        if (rows.putIfAbsent(id, row) != null) {
+            names.remove(app.getName(), id);
+            throw duplicate(app.getName());
+        }
+        return row;
+    }
+
+    // Returns the row written and the one it replaced, if any, so that a failing batch can put it back.
+    private App[] mergeRow(App app) {
+        if (app.getId() == null) {
+            return new App[]{insertRow(app, app.getRevision() == null ? 0L : app.getRevision()), null};
+        }
+
+        final long id = follow(app.getId());
+        final App row = copy(app);
+        row.setRevision(app.getRevision() == null ? 0L : app.getRevision());
+        for (;;) {
+            final App current = rows.get(id);
+            final boolean claimed = claim(app.getName(), id, current);
+            if (current == null ? rows.putIfAbsent(id, row) == null : rows.replace(id, current, row)) {
+                if (current != null && !current.getName().equals(row.getName())) {
+                    names.remove(current.getName(), id);
+                }
+                return new App[]{row, current};
+            }
+            if (claimed) {
+                names.remove(app.getName(), id);
+            }
+        }
+    }
+
+    private int update(App app, Long expectedRevision) {
+        return updateRow(app, expectedRevision) == null ? 0 : 1;
+    }
+
+    // Returns the row written and the one it replaced, or null when none matched, so that a failing batch can
+    // put it back.
+    private App[] updateRow(App app, Long expectedRevision) {
+        for (;;) {
+            final App current = rows.get(app.getId());
+            if (current == null || expectedRevision != null && !expectedRevision.equals(current.getRevision())) {
+                return null;
+            }
+            final App row = copy(current);
+            if (app.getName() != null) {
+                row.setName(app.getName());
+            }
+            if (app.getAuthor() != null) {
+                row.setAuthor(app.getAuthor());
+            }
+            if (app.getVersion() != null) {
+                row.setVersion(app.getVersion());
+                row.setVersionKey(app.getVersionKey());
+            }
+            row.setRevision(current.getRevision() + 1);
+
+            final boolean claimed = claim(row.getName(), row.getId(), current);
+            if (rows.replace(row.getId(), current, row)) {
+                if (claimed) {
+                    names.remove(current.getName(), row.getId());
+                }
+                return new App[]{row, current};
+            }
+            if (claimed) {
+                names.remove(row.getName(), row.getId());
+            }
+        }
+    }
+
+    private int delete(Long id, Long expectedRevision) {
+        for (;;) {
+            final App current = rows.get(id);
+            if (current == null || expectedRevision != null && !expectedRevision.equals(current.getRevision())) {
+                return 0;
+            }
+            if (rows.remove(id, current)) {
+                names.remove(current.getName(), id);
+                return 1;
+            }
+        }
+    }
+
+    // Claims the name for the id unless the row already holds it, failing when another id owns it; returns
+    // whether a claim was made, which the caller releases should its write not go through.
+    private boolean claim(String name, long id, App current) {
+        if (current != null && current.getName().equals(name)) {
+            return false;
+        }
+        final Long owner = names.putIfAbsent(name, id);
+        if (owner != null && owner != id) {
+            throw duplicate(name);
+        }
+        return owner == null;
+    }
+
+    private void restore(App written, App previous) {
+        if (previous == null) {
+            rows.remove(written.getId(), written);
+        } else {
+            rows.replace(written.getId(), written, previous);
+        }
+        if (previous == null || !previous.getName().equals(written.getName())) {
+            names.remove(written.getName(), written.getId());
+        }
+        if (previous != null) {
+            names.putIfAbsent(previous.getName(), previous.getId());
+        }
+    }
+
+    // Ids given explicitly move the sequence past them, as the identity column does.
+    private long follow(long id) {
+        sequence.accumulateAndGet(id, Math::max);
+        return id;
+    }
+
+    // Sorting by id or name walks the matching index in order and stops once the page is full; sorting by
+    // author or version has no index to walk, so the matching apps are sorted in full.
+    private Stream<App> candidates(AppSearchCriteria criteria) {
+        final boolean descending = criteria.isDescending();
+        final Long afterId = criteria.getAfterId();
+        if (criteria.getSort() == AppSort.ID) {
+            NavigableMap<Long, App> range = rows;
+            if (afterId != null) {
+                range = descending ? rows.headMap(afterId, false) : rows.tailMap(afterId, false);
+            }
+            return (descending ? range.descendingMap() : range).values().stream();
+        }
+        if (criteria.getSort() == AppSort.NAME) {
+            String from = criteria.getNamePrefix();
+            String to = from == null ? null : from + Character.MAX_VALUE;
+            if (afterId != null && descending) {
+                to = to == null || criteria.getAfterKey().compareTo(to) < 0 ? criteria.getAfterKey() : to;
+            } else if (afterId != null) {
+                from = from == null || criteria.getAfterKey().compareTo(from) > 0 ? criteria.getAfterKey() : from;
+            }
+            final NavigableMap<String, Long> range = from != null && to != null && from.compareTo(to) > 0
+                ? Collections.emptyNavigableMap()
+                : from == null ? (to == null ? names : names.headMap(to, true)) : (to == null ? names.tailMap(from, true) : names.subMap(from, true, to, true));
+            return (descending ? range.descendingMap() : range).values().stream()
+                .map(rows::get)
+                .filter(Objects::nonNull);
+        }
+        final Comparator<App> order = Comparator.comparing(criteria.getSort().getKey()).thenComparing(App::getId);
+        return rows.values().stream()
+            .filter(matches(criteria))
+            .sorted(descending ? order.reversed() : order);
+    }
+
+    private static Predicate<App> matches(AppSearchCriteria criteria) {
+        return app -> (criteria.getNamePrefix() == null || app.getName().startsWith(criteria.getNamePrefix()))
+            && (criteria.getAuthor() == null || app.getAuthor().equals(criteria.getAuthor()))
+            && (criteria.getMinVersionKey() == null || app.getVersionKey().compareTo(criteria.getMinVersionKey()) >= 0)
+            && (criteria.getMaxVersionKey() == null || app.getVersionKey().compareTo(criteria.getMaxVersionKey()) <= 0)
+            && (criteria.getAfterId() == null || isAfter(app, criteria));
+    }
+
+    // Same keyset predicate as the database one: past the cursor's (sort key, id) in the sort direction.
+    private static boolean isAfter(App app, AppSearchCriteria criteria) {
+        int compared = criteria.getSort() == AppSort.ID ? 0 : criteria.getSort().getKey().apply(app).compareTo(criteria.getAfterKey());
+        if (compared == 0) {
+            compared = Long.compare(app.getId(), criteria.getAfterId());
+        }
+        return criteria.isDescending() ? compared < 0 : compared > 0;
+    }
+
+    private static App copy(App app) {
+        final App copy = new App(app.getId(), app.getName(), app.getAuthor(), app.getVersion());
+        copy.setVersionKey(app.getVersionKey());
+        copy.setRevision(app.getRevision());
+        return copy;
+    }
+
+    private static DuplicateKeyException duplicate(String name) {
+        return new DuplicateKeyException("App name already taken - " + name);
+    }
+
+}
@@ -0,0 +1,275 @@
+package io.davidarchanjo.code.repository.impl;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.davidarchanjo.code.model.domain.App;
+import io.davidarchanjo.code.model.domain.AppSearchCriteria;
+import io.davidarchanjo.code.model.domain.AppSort;
+import io.davidarchanjo.code.repository.BlockingAppStore;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps the apps in the database of the R2DBC store through plain JDBC, for the blocking execution mode, over a
+ * HikariCP pool, which checks the connections it hands out and takes back whichever way a call ends. Failures
+ * are translated as Spring does for JDBC, unique violations becoming a {@link DuplicateKeyException}.
+ */
+public class JdbcAppStore implements BlockingAppStore, AutoCloseable {
+
+    private static final String TASK = "Blocking app store call";
+    private static final String COLUMNS = "id, name, author, version, version_key, revision";
+    private static final String SELECT_BY_ID = "SELECT " + COLUMNS + " FROM app WHERE id = ?";
+    private static final String EXISTS_BY_ID = "SELECT 1 FROM app WHERE id = ?";
+    private static final String SELECT_BY_NAME_AND_VERSION = "SELECT " + COLUMNS + " FROM app WHERE name = ? AND version = ?";
+    private static final String SELECT_PAGE = "SELECT " + COLUMNS + " FROM app WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String INSERT = "INSERT INTO app (id, name, author, version, version_key) VALUES (?, ?, ?, ?, ?)";
+    private static final String DELETE = "DELETE FROM app WHERE id = ?";
+    private static final String DELETE_AT_REVISION = "DELETE FROM app WHERE id = ? AND revision = ?";
+    private static final String RESERVE_IDS = "UPDATE id_block SET next_id = next_id + ? WHERE name = 'app'";
+    private static final String NEXT_ID = "SELECT next_id FROM id_block WHERE name = 'app'";
+
+    private final HikariDataSource dataSource;
+    private final SQLExceptionTranslator exceptionTranslator;
+
+    public JdbcAppStore(String url, String username, String password, int maxConnections, Duration maxAcquireTime) {
+        final HikariConfig config = new HikariConfig();
+        config.setPoolName("blocking");
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password == null ? "" : password);
+        config.setMaximumPoolSize(maxConnections);
+        config.setConnectionTimeout(maxAcquireTime.toMillis());
+        this.dataSource = new HikariDataSource(config);
+        this.exceptionTranslator = new SQLErrorCodeSQLExceptionTranslator(dataSource);
+    }
+
+    @Override
+    public App insert(App app) {
+        return execute(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+                statement.setLong(1, app.getId());
+                statement.setString(2, app.getName());
+                statement.setString(3, app.getAuthor());
+                statement.setString(4, app.getVersion());
+                statement.setString(5, app.getVersionKey());
+                statement.executeUpdate();
+            }
+            app.setRevision(0L);
+            return app;
+        });
+    }
+
+    @Override
+    public Optional<App> findById(Long id) {
+        return execute(connection -> one(query(connection, SELECT_BY_ID, id)));
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return execute(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(EXISTS_BY_ID)) {
+                statement.setLong(1, id);
+                try (ResultSet rows = statement.executeQuery()) {
+                    return rows.next();
+                }
+            }
+        });
+    }
+
+    @Override
+    public Optional<App> findByNameAndVersion(String name, String version) {
+        return execute(connection -> one(query(connection, SELECT_BY_NAME_AND_VERSION, name, version)));
+    }
+
+    @Override
+    public List<App> findPage(long after, int limit) {
+        return execute(connection -> query(connection, SELECT_PAGE, after, limit));
+    }
+
+    // The same keyset predicate over (sort key, id) as the R2DBC store, so every page is an index range scan.
+    @Override
+    public List<App> search(AppSearchCriteria criteria, int limit) {
+        final StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM app WHERE 1 = 1");
+        final List<Object> parameters = new ArrayList<>();
+        if (criteria.getNamePrefix() != null) {
+            sql.append(" AND name LIKE ?");
+            parameters.add(escapeLike(criteria.getNamePrefix()) + "%");
+        }
+        if (criteria.getAuthor() != null) {
+            sql.append(" AND author = ?");
+            parameters.add(criteria.getAuthor());
+        }
+        if (criteria.getMinVersionKey() != null) {
+            sql.append(" AND version_key >= ?");
+            parameters.add(criteria.getMinVersionKey());
+        }
+        if (criteria.getMaxVersionKey() != null) {
+            sql.append(" AND version_key <= ?");
+            parameters.add(criteria.getMaxVersionKey());
+        }
+
+        final String comparison = criteria.isDescending() ? " < ?" : " > ?";
+        final String direction = criteria.isDescending() ? " DESC" : " ASC";
+        if (criteria.getSort() == AppSort.ID) {
+            if (criteria.getAfterId() != null) {
+                sql.append(" AND id").append(comparison);
+                parameters.add(criteria.getAfterId());
+            }
+            sql.append(" ORDER BY id").append(direction);
+        } else {
+            final String column = column(criteria.getSort());
+            if (criteria.getAfterId() != null) {
+                sql.append(" AND (").append(column).append(comparison)
+                    .append(" OR (").append(column).append(" = ? AND id").append(comparison).append("))");
+                parameters.add(criteria.getAfterKey());
+                parameters.add(criteria.getAfterKey());
+                parameters.add(criteria.getAfterId());
+            }
+            sql.append(" ORDER BY ").append(column).append(direction).append(", id").append(direction);
+        }
+        sql.append(" LIMIT ?");
+        parameters.add(limit);
+        return execute(connection -> query(connection, sql.toString(), parameters.toArray()));
+    }
+
+    @Override
+    public int updateNonNullColumns(App app, Long expectedRevision) {
+        final StringBuilder sql = new StringBuilder("UPDATE app SET ");
+        final List<Object> parameters = new ArrayList<>();
+        if (app.getName() != null) {
+            sql.append("name = ?, ");
+            parameters.add(app.getName());
+        }
+        if (app.getAuthor() != null) {
+            sql.append("author = ?, ");
+            parameters.add(app.getAuthor());
+        }
+        if (app.getVersion() != null) {
+            sql.append("version = ?, version_key = ?, ");
+            parameters.add(app.getVersion());
+            parameters.add(app.getVersionKey());
+        }
+        sql.append("revision = revision + 1 WHERE id = ?");
+        parameters.add(app.getId());
+        if (expectedRevision != null) {
+            sql.append(" AND revision = ?");
+            parameters.add(expectedRevision);
+        }
+        return execute(connection -> update(connection, sql.toString(), parameters.toArray()));
+    }
+
+    @Override
+    public int deleteById(Long id, Long expectedRevision) {
+        return execute(connection -> expectedRevision == null
+            ? update(connection, DELETE, id)
+            : update(connection, DELETE_AT_REVISION, id, expectedRevision));
+    }
+
+    // Moves the counter past the block and reads where it ended, in one transaction.
+    @Override
+    public long reserveIds(int count) {
+        return execute(connection -> {
+            connection.setAutoCommit(false);
+            try {
+                update(connection, RESERVE_IDS, count);
+                final long next;
+                try (PreparedStatement statement = connection.prepareStatement(NEXT_ID);
+                     ResultSet rows = statement.executeQuery()) {
+                    rows.next();
+                    next = rows.getLong(1);
+                }
+                connection.commit();
+                return next - count;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+
+    private <T> T execute(SqlCall<T> call) {
+        try (Connection connection = dataSource.getConnection()) {
+            return call.apply(connection);
+        } catch (SQLException e) {
+            final DataAccessException translated = exceptionTranslator.translate(TASK, null, e);
+            throw translated != null ? translated : new UncategorizedSQLException(TASK, null, e);
+        }
+    }
+
+    private static List<App> query(Connection connection, String sql, Object... parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            bind(statement, parameters);
+            try (ResultSet rows = statement.executeQuery()) {
+                final List<App> apps = new ArrayList<>();
+                while (rows.next()) {
+                    apps.add(app(rows));
+                }
+                return apps;
+            }
+        }
+    }
+
+    private static int update(Connection connection, String sql, Object... parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            bind(statement, parameters);
+            return statement.executeUpdate();
+        }
+    }
+
+    private static void bind(PreparedStatement statement, Object... parameters) throws SQLException {
+        for (int i = 0; i < parameters.length; i++) {
+            statement.setObject(i + 1, parameters[i]);
+        }
+    }
+
+    private static App app(ResultSet row) throws SQLException {
+        final App app = new App(row.getLong("id"), row.getString("name"), row.getString("author"), row.getString("version"));
+        app.setVersionKey(row.getString("version_key"));
+        app.setRevision(row.getLong("revision"));
+        return app;
+    }
+
+    private static Optional<App> one(List<App> apps) {
+        return apps.isEmpty() ? Optional.empty() : Optional.of(apps.get(0));
+    }
+
+    private static String column(AppSort sort) {
+        return switch (sort) {
+            case NAME -> "name";
+            case AUTHOR -> "author";
+            case VERSION -> "version_key";
+            case ID -> "id";
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    @FunctionalInterface
+    private interface SqlCall<T> {
+
+        T apply(Connection connection) throws SQLException;
+
+    }
+
+}
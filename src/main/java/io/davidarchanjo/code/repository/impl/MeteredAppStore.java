@@ -0,0 +1,126 @@
+package io.davidarchanjo.code.repository.impl;
+
+import io.davidarchanjo.code.model.domain.App;
+import io.davidarchanjo.code.model.domain.AppSearchCriteria;
+import io.davidarchanjo.code.repository.AppStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Times every {@link AppStore} call from subscription to termination, tagged by method, outcome and exception,
+ * under the {@code app.store} timer. The statements only run once subscribed to, so timing the call itself
+ * would measure no more than how they are put together.
+ */
+public class MeteredAppStore implements AppStore {
+
+    private static final String METRIC_NAME = "app.store";
+    private static final String NONE = "None";
+
+    private final AppStore delegate;
+    private final MeterRegistry registry;
+
+    public MeteredAppStore(AppStore delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+    }
+
+    @Override
+    public Mono<App> insert(App app) {
+        return timed("insert", delegate.insert(app));
+    }
+
+    @Override
+    public Mono<App> findById(Long id) {
+        return timed("findById", delegate.findById(id));
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Long id) {
+        return timed("existsById", delegate.existsById(id));
+    }
+
+    @Override
+    public Mono<App> findByNameAndVersion(String name, String version) {
+        return timed("findByNameAndVersion", delegate.findByNameAndVersion(name, version));
+    }
+
+    @Override
+    public Flux<App> findPage(long after, int limit) {
+        return timed("findPage", delegate.findPage(after, limit));
+    }
+
+    @Override
+    public Flux<App> search(AppSearchCriteria criteria, int limit) {
+        return timed("search", delegate.search(criteria, limit));
+    }
+
+    @Override
+    public Mono<Integer> updateNonNullColumns(App app, Long expectedRevision) {
+        return timed("updateNonNullColumns", delegate.updateNonNullColumns(app, expectedRevision));
+    }
+
+    @Override
+    public Mono<Integer> deleteById(Long id, Long expectedRevision) {
+        return timed("deleteById", delegate.deleteById(id, expectedRevision));
+    }
+
+    @Override
+    public Flux<String> findExistingNames(Collection<String> names) {
+        return timed("findExistingNames", delegate.findExistingNames(names));
+    }
+
+    @Override
+    public Flux<Long> insertAll(List<App> apps) {
+        return timed("insertAll", delegate.insertAll(apps));
+    }
+
+    @Override
+    public Flux<Integer> updateAll(List<App> apps) {
+        return timed("updateAll", delegate.updateAll(apps));
+    }
+
+    @Override
+    public Flux<Integer> deleteAllById(List<Long> ids) {
+        return timed("deleteAllById", delegate.deleteAllById(ids));
+    }
+
+    @Override
+    public Flux<Integer> mergeAll(List<App> apps) {
+        return timed("mergeAll", delegate.mergeAll(apps));
+    }
+
+    @Override
+    public Mono<Long> reserveIds(int count) {
+        return timed("reserveIds", delegate.reserveIds(count));
+    }
+
+    private <T> Mono<T> timed(String method, Mono<T> source) {
+        return Mono.defer(() -> {
+            final Timer.Sample sample = Timer.start(registry);
+            return source
+                .doOnSuccess(o -> sample.stop(timer(method, "SUCCESS", NONE)))
+                .doOnError(e -> sample.stop(timer(method, "ERROR", e.getClass().getSimpleName())))
+                .doOnCancel(() -> sample.stop(timer(method, "CANCELED", NONE)));
+        });
+    }
+
+    private <T> Flux<T> timed(String method, Flux<T> source) {
+        return Flux.defer(() -> {
+            final Timer.Sample sample = Timer.start(registry);
+            return source
+                .doOnComplete(() -> sample.stop(timer(method, "SUCCESS", NONE)))
+                .doOnError(e -> sample.stop(timer(method, "ERROR", e.getClass().getSimpleName())))
+                .doOnCancel(() -> sample.stop(timer(method, "CANCELED", NONE)));
+        });
+    }
+
+    private Timer timer(String method, String outcome, String exception) {
+        return registry.timer(METRIC_NAME, "method", method, "outcome", outcome, "exception", exception);
+    }
+
+}
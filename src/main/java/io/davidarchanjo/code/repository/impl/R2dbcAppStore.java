@@ -0,0 +1,121 @@
+package io.davidarchanjo.code.repository.impl;
+
+import io.davidarchanjo.code.model.domain.App;
+import io.davidarchanjo.code.model.domain.AppSearchCriteria;
+import io.davidarchanjo.code.repository.AppRepository;
+import io.davidarchanjo.code.repository.AppStore;
+import io.r2dbc.spi.R2dbcException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps the apps in the database through {@link AppRepository}, running the all-or-nothing batch writes in a
+ * transaction and turning unique violations into {@link DuplicateKeyException}. Ids are reserved from a counter
+ * row of the {@code id_block} table, which every instance sharing the database takes its blocks from.
+ */
+@RequiredArgsConstructor
+public class R2dbcAppStore implements AppStore {
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final AppRepository repository;
+    private final TransactionalOperator transactionalOperator;
+
+    @Override
+    public Mono<App> insert(App app) {
+        return repository.save(app)
+            .onErrorMap(R2dbcAppStore::isUniqueViolation, R2dbcAppStore::duplicateKey);
+    }
+
+    @Override
+    public Mono<App> findById(Long id) {
+        return repository.findById(id);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Long id) {
+        return repository.existsById(id);
+    }
+
+    @Override
+    public Mono<App> findByNameAndVersion(String name, String version) {
+        return repository.findByNameAndVersion(name, version);
+    }
+
+    @Override
+    public Flux<App> findPage(long after, int limit) {
+        return repository.findPage(after, limit);
+    }
+
+    @Override
+    public Flux<App> search(AppSearchCriteria criteria, int limit) {
+        return repository.search(criteria, limit);
+    }
+
+    @Override
+    public Mono<Integer> updateNonNullColumns(App app, Long expectedRevision) {
+        return repository.updateNonNullColumns(app, expectedRevision)
+            .onErrorMap(R2dbcAppStore::isUniqueViolation, R2dbcAppStore::duplicateKey);
+    }
+
+    @Override
+    public Mono<Integer> deleteById(Long id, Long expectedRevision) {
+        return expectedRevision == null ? repository.removeById(id) : repository.removeByIdAndRevision(id, expectedRevision);
+    }
+
+    @Override
+    public Flux<String> findExistingNames(Collection<String> names) {
+        return repository.findExistingNames(names);
+    }
+
+    @Override
+    public Flux<Long> insertAll(List<App> apps) {
+        return repository.insertAll(apps)
+            .as(transactionalOperator::transactional)
+            .onErrorMap(R2dbcAppStore::isUniqueViolation, R2dbcAppStore::duplicateKey);
+    }
+
+    @Override
+    public Flux<Integer> updateAll(List<App> apps) {
+        return repository.updateAll(apps)
+            .as(transactionalOperator::transactional)
+            .onErrorMap(R2dbcAppStore::isUniqueViolation, R2dbcAppStore::duplicateKey);
+    }
+
+    @Override
+    public Flux<Integer> deleteAllById(List<Long> ids) {
+        return repository.deleteAllById(ids);
+    }
+
+    @Override
+    public Flux<Integer> mergeAll(List<App> apps) {
+        return repository.mergeAll(apps)
+            .as(transactionalOperator::transactional)
+            .onErrorMap(R2dbcAppStore::isUniqueViolation, R2dbcAppStore::duplicateKey);
+    }
+
+    // The block row is locked by the update until the transaction commits, so instances reserve one at a time.
+    @Override
+    public Mono<Long> reserveIds(int count) {
+        return repository.reserveIds(count)
+            .as(transactionalOperator::transactional);
+    }
+
+    private static boolean isUniqueViolation(Throwable th) {
+        return th instanceof DataIntegrityViolationException
+            && th.getCause() instanceof R2dbcException cause
+            && UNIQUE_VIOLATION.equals(cause.getSqlState());
+    }
+
+    private static Throwable duplicateKey(Throwable th) {
+        return new DuplicateKeyException(th.getMessage(), th);
+    }
+
+}
@@ -1,5 +1,6 @@
 package io.davidarchanjo.code.router;
 
+import io.davidarchanjo.code.handler.AppBatchHandler;
 import io.davidarchanjo.code.handler.AppHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -8,21 +9,30 @@ import org.springframework.web.reactive.function.server.ServerResponse;
 
 import static org.springframework.web.reactive.function.server.RequestPredicates.DELETE;
 import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RequestPredicates.PATCH;
 import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
 import static org.springframework.web.reactive.function.server.RequestPredicates.PUT;
 import static org.springframework.web.reactive.function.server.RouterFunctions.route;
 
-@Configuration
+@Configuration(proxyBeanMethods = false)
 public class AppRouter {
 
     private static final String BASE_PATH = "/api/functional/apps";
 
     @Bean
-    public RouterFunction<ServerResponse> routes(AppHandler handler) {
-        return route(GET(BASE_PATH), handler::all)
+    public RouterFunction<ServerResponse> routes(AppHandler handler, AppBatchHandler batchHandler) {
+        return route(POST(BASE_PATH + "/batch"), batchHandler::createAll)
+            .andRoute(PUT(BASE_PATH + "/batch"), batchHandler::updateAll)
+            .andRoute(DELETE(BASE_PATH + "/batch"), batchHandler::deleteAll)
+            .andRoute(GET(BASE_PATH + "/search"), handler::search)
+            .andRoute(GET(BASE_PATH + "/changes"), batchHandler::changes)
+            .andRoute(GET(BASE_PATH + "/export"), batchHandler::exportAll)
+            .andRoute(POST(BASE_PATH + "/import"), batchHandler::importAll)
+            .andRoute(GET(BASE_PATH), handler::all)
             .andRoute(POST(BASE_PATH), handler::create)
             .andRoute(GET(BASE_PATH + "/{id}"), handler::get)
             .andRoute(PUT(BASE_PATH + "/{id}"), handler::update)
+            .andRoute(PATCH(BASE_PATH + "/{id}"), handler::patch)
             .andRoute(DELETE(BASE_PATH + "/{id}"), handler::delete);
     }
 
@@ -0,0 +1,49 @@
+package io.davidarchanjo.code.router;
+
+import io.davidarchanjo.code.handler.AppHandler;
+import io.davidarchanjo.code.handler.AppRequestHandler;
+import io.davidarchanjo.code.service.BlockingAppService;
+import io.davidarchanjo.code.service.impl.OffloadingAppService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.scheduler.Scheduler;
+
+import javax.validation.Validator;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.DELETE;
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RequestPredicates.PATCH;
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
+import static org.springframework.web.reactive.function.server.RequestPredicates.PUT;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * The single operations of the functional endpoints, served by the blocking execution mode. The handlers are
+ * those of {@link AppRouter} over the blocking service, so requests are read, validated and answered the same
+ * way; they are not beans, so as not to stand beside the reactive ones wherever those are injected.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.blocking.enabled", havingValue = "true")
+public class BlockingAppRouter {
+
+    private static final String BASE_PATH = "/api/blocking/apps";
+
+    @Bean
+    public RouterFunction<ServerResponse> blockingRoutes(BlockingAppService blockingAppService, Scheduler blockingScheduler,
+                                                         Validator validator, MessageSource messageSource) {
+        final OffloadingAppService service = new OffloadingAppService(blockingAppService, blockingScheduler);
+        final AppHandler handler = new AppHandler(new AppRequestHandler(service, validator, messageSource));
+        return route(GET(BASE_PATH + "/search"), handler::search)
+            .andRoute(GET(BASE_PATH), handler::all)
+            .andRoute(POST(BASE_PATH), handler::create)
+            .andRoute(GET(BASE_PATH + "/{id}"), handler::get)
+            .andRoute(PUT(BASE_PATH + "/{id}"), handler::update)
+            .andRoute(PATCH(BASE_PATH + "/{id}"), handler::patch)
+            .andRoute(DELETE(BASE_PATH + "/{id}"), handler::delete);
+    }
+
+}
@@ -1,16 +1,15 @@
 package io.davidarchanjo.code.service;
 
+import io.davidarchanjo.code.model.dto.AppBatchResultDTO;
 import io.davidarchanjo.code.model.dto.AppDTO;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-public interface AppService {
+public interface AppService extends SingleAppService {
 
-    Mono<AppDTO> save(AppDTO dto);
-    Flux<AppDTO> findAll();
-    Mono<AppDTO> findById(Long id);
-    Mono<AppDTO> findByNameAndVersion(String name, String version);
-    Mono<Void> updateById(Long id, AppDTO dto);
-    Mono<Void> deleteById(Long id);
+    Flux<AppBatchResultDTO> saveAll(Flux<AppDTO> dtos);
+    Flux<AppBatchResultDTO> updateAll(Flux<AppDTO> dtos);
+    Flux<AppBatchResultDTO> deleteAllById(Flux<Long> ids);
+    Mono<Long> importAll(Flux<AppDTO> dtos);
 
 }
@@ -0,0 +1,22 @@
+package io.davidarchanjo.code.service;
+
+import io.davidarchanjo.code.model.dto.AppDTO;
+import io.davidarchanjo.code.model.dto.AppPageDTO;
+import io.davidarchanjo.code.model.dto.AppSearchDTO;
+
+/**
+ * The single operations of {@link AppService} as imperative code, for the blocking execution mode: each one holds
+ * the calling thread until the database answers, and fails by throwing the same exceptions the reactive ones
+ * signal.
+ */
+public interface BlockingAppService {
+
+    AppDTO save(AppDTO dto);
+    AppPageDTO findPage(Long after, Integer limit);
+    AppPageDTO search(AppSearchDTO search);
+    AppDTO findById(Long id);
+    AppDTO findByNameAndVersion(String name, String version);
+    void updateById(Long id, AppDTO dto, Long expectedRevision);
+    void deleteById(Long id, Long expectedRevision);
+
+}
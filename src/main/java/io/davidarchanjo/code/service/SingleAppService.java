@@ -0,0 +1,32 @@
+package io.davidarchanjo.code.service;
+
+import io.davidarchanjo.code.model.dto.AppDTO;
+import io.davidarchanjo.code.model.dto.AppPageDTO;
+import io.davidarchanjo.code.model.dto.AppSearchDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The operations of {@link AppService} on a single app, and the listings, which are all the blocking execution
+ * mode serves; the handlers of the single operations depend on nothing more, so that it can stand behind them.
+ */
+public interface SingleAppService {
+
+    Mono<AppDTO> save(AppDTO dto);
+    Flux<AppDTO> findAll();
+    Mono<AppPageDTO> findPage(Long after, Integer limit);
+    Mono<AppPageDTO> search(AppSearchDTO search);
+    Mono<AppDTO> findById(Long id);
+    Mono<AppDTO> findByNameAndVersion(String name, String version);
+    Mono<Void> updateById(Long id, AppDTO dto, Long expectedRevision);
+    Mono<Void> deleteById(Long id, Long expectedRevision);
+
+    default Mono<Void> updateById(Long id, AppDTO dto) {
+        return updateById(id, dto, null);
+    }
+
+    default Mono<Void> deleteById(Long id) {
+        return deleteById(id, null);
+    }
+
+}
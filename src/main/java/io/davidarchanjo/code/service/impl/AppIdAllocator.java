@@ -0,0 +1,104 @@
+package io.davidarchanjo.code.service.impl;
+
+import io.davidarchanjo.code.config.AppProperties;
+import io.davidarchanjo.code.repository.AppStore;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands out the ids of new apps from blocks of {@code app.store.id-block-size} consecutive ids reserved from the
+ * store, so that an app gets its id without a round trip of its own, and instances sharing the store never hand
+ * out the same one. The next block is reserved in the background once half of the current one is taken, so
+ * callers only wait for it when ids go faster than a reservation. Taking an id is a single increment; ids of
+ * blocks not used up when the instance stops are never handed out, which only leaves gaps.
+ */
+@Component
+public class AppIdAllocator {
+
+    private final AppStore store;
+    private final int blockSize;
+    private final AtomicReference<Block> current = new AtomicReference<>(new Block(0, 0));
+    private final AtomicReference<Mono<Block>> reserving = new AtomicReference<>();
+
+    public AppIdAllocator(AppStore store, AppProperties properties) {
+        this.store = store;
+        this.blockSize = properties.getStore().getIdBlockSize();
+    }
+
+    public Mono<Long> next() {
+        return Mono.defer(() -> {
+            final Block block = current.get();
+            final long id = block.next.getAndIncrement();
+            if (id < block.end) {
+                if (id == block.halfway) {
+                    reserve();
+                }
+                return Mono.just(id);
+            }
+            // Forgotten before it is installed, so that no caller takes a block already in use for the next one.
+            final Mono<Block> reserved = reserve();
+            return reserved.flatMap(o -> {
+                reserving.compareAndSet(reserved, null);
+                current.compareAndSet(block, o);
+                return next();
+            });
+        });
+    }
+
+    // More ids than a block holds are reserved for the caller alone, in a single round trip.
+    public Flux<Long> next(int count) {
+        return count > blockSize
+            ? store.reserveIds(count).flatMapMany(first -> Flux.range(0, count).map(i -> first + i))
+            : Flux.range(0, count).concatMap(__ -> next());
+    }
+
+    /**
+     * Drops the blocks held, once ids were written as given, so that those handed out next come from a block
+     * reserved past them.
+     */
+    public void discard() {
+        reserving.set(null);
+        current.set(new Block(0, 0));
+    }
+
+    // The reservation in flight, or a new one; a failed one is forgotten, so that the next caller tries again.
+    private Mono<Block> reserve() {
+        for (;;) {
+            final Mono<Block> pending = reserving.get();
+            if (pending != null) {
+                return pending;
+            }
+            final Sinks.One<Block> sink = Sinks.one();
+            final Mono<Block> reserved = sink.asMono();
+            if (reserving.compareAndSet(null, reserved)) {
+                store.reserveIds(blockSize).subscribe(
+                    first -> sink.tryEmitValue(new Block(first, blockSize)),
+                    e -> {
+                        reserving.compareAndSet(reserved, null);
+                        sink.tryEmitError(e);
+                    });
+                return reserved;
+            }
+        }
+    }
+
+    private static final class Block {
+
+        private final AtomicLong next;
+        private final long end;
+        private final long halfway;
+
+        Block(long first, int size) {
+            this.next = new AtomicLong(first);
+            this.end = first + size;
+            this.halfway = first + size / 2;
+        }
+
+    }
+
+}
@@ -1,66 +1,381 @@
 package io.davidarchanjo.code.service.impl;
 
 import io.davidarchanjo.code.builder.AppBuilder;
+import io.davidarchanjo.code.builder.Pages;
+import io.davidarchanjo.code.builder.Patches;
+import io.davidarchanjo.code.config.AppProperties;
+import io.davidarchanjo.code.event.AppChangeStream;
 import io.davidarchanjo.code.exception.AppAlreadyExistException;
+import io.davidarchanjo.code.exception.AppInvalidInputException;
 import io.davidarchanjo.code.exception.AppNotFoundException;
+import io.davidarchanjo.code.exception.AppPreconditionFailedException;
+import io.davidarchanjo.code.exception.ErrorIndicator;
 import io.davidarchanjo.code.model.domain.App;
+import io.davidarchanjo.code.model.dto.AppBatchResultDTO;
 import io.davidarchanjo.code.model.dto.AppDTO;
-import io.davidarchanjo.code.repository.AppRepository;
+import io.davidarchanjo.code.model.dto.AppPageDTO;
+import io.davidarchanjo.code.model.dto.AppSearchDTO;
+import io.davidarchanjo.code.model.dto.ErrorDTO;
+import io.davidarchanjo.code.repository.AppStore;
 import io.davidarchanjo.code.service.AppService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.MessageSource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 @Service
 public class AppServiceImpl implements AppService {
-    
+
     private final AppBuilder builder;
-    private final AppRepository repository;
+    private final AppStore store;
+    private final AppProperties properties;
+    private final Validator validator;
+    private final MessageSource messageSource;
+    private final AppChangeStream changes;
+    private final AppIdAllocator ids;
 
     @Override
     public Mono<AppDTO> save(AppDTO dto) {
-        return repository.findByName(dto.getName())
-            .flatMap(__ -> Mono.error(new AppAlreadyExistException("App with name - {0}, already exist", dto.getName())))
-            .switchIfEmpty(repository.save(builder.build(dto)))
-            .cast(App.class)
-            .flatMap(o -> Mono.just(builder.build(o)));
+        final App app = builder.build(dto);
+        return ids.next()
+            .flatMap(id -> {
+                app.setId(id);
+                return store.insert(app);
+            })
+            .onErrorMap(AppServiceImpl::isUniqueViolation, __ -> new AppAlreadyExistException("App with name - {0}, already exist", dto.getName()))
+            .map(builder::build)
+            .doOnNext(changes::created);
     }
 
     @Override
     public Flux<AppDTO> findAll() {
-        return repository.findAll()
-            .flatMap(o -> Mono.just(builder.build(o)));
+        final int chunk = properties.getPagination().getMaxLimit();
+        return store.findPage(0L, chunk)
+            .collectList()
+            .expand(o -> o.size() < chunk
+                ? Mono.empty()
+                : store.findPage(o.get(o.size() - 1).getId(), chunk).collectList())
+            .flatMapIterable(Function.identity())
+            .map(builder::build);
+    }
+
+    @Override
+    public Mono<AppPageDTO> findPage(Long after, Integer limit) {
+        final int size = Pages.size(limit, properties.getPagination());
+        return store.findPage(after == null ? 0L : after, size + 1)
+            .map(builder::build)
+            .collectList()
+            .map(o -> Pages.afterId(o, size));
+    }
+
+    @Override
+    public Mono<AppPageDTO> search(AppSearchDTO search) {
+        return Mono.fromCallable(() -> Pages.criteria(search))
+            .flatMap(criteria -> {
+                final int size = Pages.size(search.getLimit(), properties.getPagination());
+                return store.search(criteria, size + 1)
+                    .collectList()
+                    .map(o -> Pages.of(o, size, criteria, builder::build));
+            });
     }
 
     @Override
     public Mono<AppDTO> findById(Long id) {
-        return repository.findById(id)
-            .switchIfEmpty(Mono.error(new AppNotFoundException("App with id - {0}, not found", id)))
+        return store.findById(id)
+            .switchIfEmpty(Mono.error(() -> new AppNotFoundException("App with id - {0}, not found", id)))
             .flatMap(o -> Mono.just(builder.build(o)));
     }
 
     @Override
     public Mono<AppDTO> findByNameAndVersion(String name, String version) {
-        return repository.findByNameAndVersion(name, version)
-            .switchIfEmpty(Mono.error(new AppNotFoundException("App with name - {0} and version {1}, not found", name, version)))
+        return store.findByNameAndVersion(name, version)
+            .switchIfEmpty(Mono.error(() -> new AppNotFoundException("App with name - {0} and version {1}, not found", name, version)))
             .flatMap(o -> Mono.just(builder.build(o)));
     }
 
     @Override
-    public Mono<Void> updateById(Long id, AppDTO dto) {
-        return repository.findById(id)
-            .switchIfEmpty(Mono.error(new AppNotFoundException("App with id - {0}, not found", id)))
-            .flatMap(o -> Mono.just(builder.build(dto, o)))
-            .flatMap(repository::save)
-            .flatMap(__ -> Mono.empty());
+    public Mono<Void> updateById(Long id, AppDTO dto, Long expectedRevision) {
+        final App app = builder.build(dto);
+        app.setId(id);
+        return store.updateNonNullColumns(app, expectedRevision)
+            .onErrorMap(AppServiceImpl::isUniqueViolation, __ -> new AppAlreadyExistException("App with name - {0}, already exist", dto.getName()))
+            .flatMap(rows -> rows > 0 ? Mono.<Void>empty() : notUpdated(id, expectedRevision))
+            .doOnSuccess(__ -> changes.updated(id));
+    }
+
+    @Override
+    public Mono<Void> deleteById(Long id, Long expectedRevision) {
+        return store.deleteById(id, expectedRevision)
+            .flatMap(rows -> rows > 0 ? Mono.<Void>empty() : notUpdated(id, expectedRevision))
+            .doOnSuccess(__ -> changes.deleted(id));
+    }
+
+    @Override
+    public Flux<AppBatchResultDTO> saveAll(Flux<AppDTO> dtos) {
+        return dtos.index()
+            .buffer(properties.getBatch().getSize())
+            .concatMap(this::saveChunk);
+    }
+
+    @Override
+    public Flux<AppBatchResultDTO> updateAll(Flux<AppDTO> dtos) {
+        return dtos.index()
+            .buffer(properties.getBatch().getSize())
+            .concatMap(this::updateChunk);
+    }
+
+    @Override
+    public Flux<AppBatchResultDTO> deleteAllById(Flux<Long> ids) {
+        return ids.index()
+            .buffer(properties.getBatch().getSize())
+            .concatMap(this::deleteChunk);
     }
 
+    // Each chunk is written all or nothing, so a failing chunk stops the import with the previous ones
+    // kept; rows are merged by id, so importing the same export again is harmless. The ids held are
+    // dropped afterwards, as the import may have written some of them.
     @Override
-    public Mono<Void> deleteById(Long id) {
-        return findById(id)
-            .flatMap(__ -> repository.deleteById(id));
+    public Mono<Long> importAll(Flux<AppDTO> dtos) {
+        return dtos.index()
+            .buffer(properties.getBatch().getSize())
+            .concatMap(this::importChunk)
+            .reduce(0L, Long::sum)
+            .doFinally(__ -> {
+                ids.discard();
+                changes.reset();
+            });
+    }
+
+    private Flux<AppBatchResultDTO> saveChunk(List<Tuple2<Long, AppDTO>> chunk) {
+        final AppBatchResultDTO[] results = new AppBatchResultDTO[chunk.size()];
+        final Set<String> names = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            final AppDTO dto = chunk.get(i).getT2();
+            final Set<ConstraintViolation<AppDTO>> violations = validator.validate(dto);
+            if (violations.isEmpty()) {
+                names.add(dto.getName());
+            } else {
+                results[i] = invalid(chunk.get(i).getT1(), null, violations);
+            }
+        }
+
+        return store.findExistingNames(names)
+            .collect(Collectors.toSet())
+            .flatMapMany(taken -> {
+                final List<Integer> positions = new ArrayList<>();
+                final List<App> apps = new ArrayList<>();
+                for (int i = 0; i < chunk.size(); i++) {
+                    if (results[i] != null) {
+                        continue;
+                    }
+                    final AppDTO dto = chunk.get(i).getT2();
+                    if (taken.add(dto.getName())) {
+                        positions.add(i);
+                        apps.add(builder.build(dto));
+                    } else {
+                        results[i] = failed(chunk.get(i).getT1(), null, ErrorIndicator.ERROR_RESOURCE_ALREADY_EXIST, HttpStatus.CONFLICT);
+                    }
+                }
+
+                return this.ids.next(apps.size())
+                    .index()
+                    .doOnNext(o -> apps.get(o.getT1().intValue()).setId(o.getT2()))
+                    .then(Mono.defer(() -> insertChunk(apps)))
+                    .flatMapIterable(ids -> {
+                        for (int i = 0; i < ids.size(); i++) {
+                            final int position = positions.get(i);
+                            final long index = chunk.get(position).getT1();
+                            final App app = apps.get(i);
+                            app.setId(ids.get(i).orElse(null));
+                            if (app.getId() != null) {
+                                final AppDTO created = builder.build(app);
+                                changes.created(created);
+                                results[position] = AppBatchResultDTO.builder().index(index).status(HttpStatus.CREATED.value()).id(app.getId()).app(created).build();
+                            } else {
+                                results[position] = failed(index, null, ErrorIndicator.ERROR_RESOURCE_ALREADY_EXIST, HttpStatus.CONFLICT);
+                            }
+                        }
+                        return Arrays.asList(results);
+                    });
+            });
+    }
+
+    // The batched insert is all or nothing, so a name taken concurrently since the IN check fails the whole
+    // chunk; the chunk is then retried item by item to tell the conflicting items apart.
+    private Mono<List<Optional<Long>>> insertChunk(List<App> apps) {
+        return store.insertAll(apps)
+            .map(Optional::of)
+            .collectList()
+            .onErrorResume(AppServiceImpl::isUniqueViolation, e -> Flux.fromIterable(apps)
+                .concatMap(o -> store.insertAll(List.of(o))
+                    .single()
+                    .map(Optional::of)
+                    .onErrorResume(AppServiceImpl::isUniqueViolation, __ -> Mono.just(Optional.empty())))
+                .collectList());
+    }
+
+    private Mono<Long> importChunk(List<Tuple2<Long, AppDTO>> chunk) {
+        final List<App> apps = new ArrayList<>(chunk.size());
+        final List<App> withoutId = new ArrayList<>();
+        for (Tuple2<Long, AppDTO> o : chunk) {
+            final Set<ConstraintViolation<AppDTO>> violations = validator.validate(o.getT2());
+            if (!violations.isEmpty()) {
+                final ConstraintViolation<AppDTO> violation = violations.iterator().next();
+                return Mono.error(new AppInvalidInputException("Invalid app at index {0} - {1}", String.valueOf(o.getT1()),
+                    messageSource.getMessage("error.input.validation", new Object[]{violation.getPropertyPath().toString(), violation.getMessage()}, Locale.getDefault())));
+            }
+            final App app = builder.build(o.getT2());
+            app.setRevision(o.getT2().getRevision());
+            apps.add(app);
+            if (app.getId() == null) {
+                withoutId.add(app);
+            }
+        }
+
+        return ids.next(withoutId.size())
+            .index()
+            .doOnNext(o -> withoutId.get(o.getT1().intValue()).setId(o.getT2()))
+            .thenMany(Flux.defer(() -> store.mergeAll(apps)))
+            .reduce(0L, (total, rows) -> total + rows)
+            .onErrorMap(AppServiceImpl::isUniqueViolation, __ -> new AppAlreadyExistException("Imported apps clash with the names of existing ones"));
+    }
+
+    // Items are partial updates, so only the fields they carry are validated, as for a single patch.
+    private Flux<AppBatchResultDTO> updateChunk(List<Tuple2<Long, AppDTO>> chunk) {
+        final AppBatchResultDTO[] results = new AppBatchResultDTO[chunk.size()];
+        final List<Integer> positions = new ArrayList<>();
+        final List<App> apps = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            final AppDTO dto = chunk.get(i).getT2();
+            if (dto.getId() == null) {
+                results[i] = failed(chunk.get(i).getT1(), null, ErrorIndicator.ERROR_INPUT_VALIDATION, HttpStatus.BAD_REQUEST);
+                continue;
+            }
+            final Set<ConstraintViolation<AppDTO>> violations = Patches.violations(validator, dto);
+            if (!violations.isEmpty()) {
+                results[i] = invalid(chunk.get(i).getT1(), dto.getId(), violations);
+                continue;
+            }
+            final App app = builder.build(dto);
+            app.setId(dto.getId());
+            positions.add(i);
+            apps.add(app);
+        }
+
+        return updateRows(apps)
+            .flatMapIterable(rows -> {
+                for (int i = 0; i < rows.size(); i++) {
+                    final int position = positions.get(i);
+                    final long index = chunk.get(position).getT1();
+                    final Long id = apps.get(i).getId();
+                    if (rows.get(i).isEmpty()) {
+                        results[position] = failed(index, id, ErrorIndicator.ERROR_RESOURCE_ALREADY_EXIST, HttpStatus.CONFLICT);
+                    } else if (rows.get(i).get() > 0) {
+                        changes.updated(id);
+                        results[position] = AppBatchResultDTO.builder().index(index).status(HttpStatus.NO_CONTENT.value()).id(id).build();
+                    } else {
+                        results[position] = failed(index, id, ErrorIndicator.ERROR_RESOURCE_NOT_FOUND, HttpStatus.NOT_FOUND);
+                    }
+                }
+                return Arrays.asList(results);
+            });
+    }
+
+    // Rows updated per app, or empty for those renamed to a name another app holds. The batched update is all or
+    // nothing, like the insert, so a clash is retried item by item to tell the conflicting items apart.
+    private Mono<List<Optional<Integer>>> updateRows(List<App> apps) {
+        return store.updateAll(apps)
+            .map(Optional::of)
+            .collectList()
+            .onErrorResume(AppServiceImpl::isUniqueViolation, e -> Flux.fromIterable(apps)
+                .concatMap(o -> store.updateAll(List.of(o))
+                    .single()
+                    .map(Optional::of)
+                    .onErrorResume(AppServiceImpl::isUniqueViolation, __ -> Mono.just(Optional.empty())))
+                .collectList());
+    }
+
+    private Flux<AppBatchResultDTO> deleteChunk(List<Tuple2<Long, Long>> chunk) {
+        final List<Long> ids = chunk.stream()
+            .map(Tuple2::getT2)
+            .collect(Collectors.toList());
+
+        return store.deleteAllById(ids)
+            .index()
+            .map(o -> {
+                final long index = chunk.get(o.getT1().intValue()).getT1();
+                final Long id = ids.get(o.getT1().intValue());
+                if (o.getT2() > 0) {
+                    changes.deleted(id);
+                    return AppBatchResultDTO.builder().index(index).status(HttpStatus.NO_CONTENT.value()).id(id).build();
+                }
+                return failed(index, id, ErrorIndicator.ERROR_RESOURCE_NOT_FOUND, HttpStatus.NOT_FOUND);
+            });
+    }
+
+    // Only reached when no row matched, so the extra lookup is paid on the failure path alone.
+    private Mono<Void> notUpdated(Long id, Long expectedRevision) {
+        return expectedRevision == null
+            ? Mono.error(new AppNotFoundException("App with id - {0}, not found", id))
+            : store.existsById(id)
+                .flatMap(exists -> Mono.error(exists
+                    ? new AppPreconditionFailedException("App with id - {0}, is no longer at revision {1}", id, expectedRevision)
+                    : new AppNotFoundException("App with id - {0}, not found", id)));
+    }
+
+    private static boolean isUniqueViolation(Throwable th) {
+        return th instanceof DuplicateKeyException;
+    }
+
+    private AppBatchResultDTO invalid(long index, Long id, Set<ConstraintViolation<AppDTO>> violations) {
+        final List<String> details = violations.stream()
+            .map(o -> messageSource.getMessage(
+                "error.input.validation",
+                new Object[]{o.getPropertyPath().toString(), o.getMessage()},
+                Locale.getDefault()))
+            .collect(Collectors.toList());
+
+        return AppBatchResultDTO.builder()
+            .index(index)
+            .status(HttpStatus.BAD_REQUEST.value())
+            .id(id)
+            .error(ErrorDTO.builder()
+                .code(ErrorIndicator.ERROR_INPUT_VALIDATION.getCode())
+                .message(ErrorIndicator.ERROR_INPUT_VALIDATION.getMessage())
+                .httpStatus(HttpStatus.BAD_REQUEST)
+                .details(details)
+                .build())
+            .build();
+    }
+
+    private static AppBatchResultDTO failed(long index, Long id, ErrorIndicator indicator, HttpStatus status) {
+        return AppBatchResultDTO.builder()
+            .index(index)
+            .status(status.value())
+            .id(id)
+            .error(ErrorDTO.builder()
+                .code(indicator.getCode())
+                .message(indicator.getMessage())
+                .httpStatus(status)
+                .build())
+            .build();
     }
 
 }
@@ -0,0 +1,147 @@
+package io.davidarchanjo.code.service.impl;
+
+import io.davidarchanjo.code.builder.AppBuilder;
+import io.davidarchanjo.code.builder.Pages;
+import io.davidarchanjo.code.config.AppProperties;
+import io.davidarchanjo.code.event.AppChangeStream;
+import io.davidarchanjo.code.event.LocalAppInvalidations;
+import io.davidarchanjo.code.exception.AppAlreadyExistException;
+import io.davidarchanjo.code.exception.AppNotFoundException;
+import io.davidarchanjo.code.exception.AppPreconditionFailedException;
+import io.davidarchanjo.code.model.domain.App;
+import io.davidarchanjo.code.model.domain.AppSearchCriteria;
+import io.davidarchanjo.code.model.dto.AppDTO;
+import io.davidarchanjo.code.model.dto.AppInvalidationDTO;
+import io.davidarchanjo.code.model.dto.AppPageDTO;
+import io.davidarchanjo.code.model.dto.AppSearchDTO;
+import io.davidarchanjo.code.repository.BlockingAppStore;
+import io.davidarchanjo.code.service.BlockingAppService;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * The operations of {@link AppServiceImpl}, step by step over a {@link BlockingAppStore}. Writes are published
+ * to the change stream, and invalidate what the cache of the reactive stack holds, as theirs do. Ids come from
+ * blocks of its own, reserved from the same counter as the reactive ones.
+ */
+public class BlockingAppServiceImpl implements BlockingAppService {
+
+    private final AppBuilder builder;
+    private final BlockingAppStore store;
+    private final AppProperties properties;
+    private final AppChangeStream changes;
+    private final LocalAppInvalidations invalidations;
+    // A lock rather than a monitor, as a virtual thread reserving a block inside a monitor would pin its carrier.
+    private final ReentrantLock idLock = new ReentrantLock();
+    private long nextId;
+    private long endId;
+
+    public BlockingAppServiceImpl(AppBuilder builder, BlockingAppStore store, AppProperties properties,
+                                  AppChangeStream changes, LocalAppInvalidations invalidations) {
+        this.builder = builder;
+        this.store = store;
+        this.properties = properties;
+        this.changes = changes;
+        this.invalidations = invalidations;
+    }
+
+    @Override
+    public AppDTO save(AppDTO dto) {
+        final App app = builder.build(dto);
+        app.setId(nextId());
+        final AppDTO created;
+        try {
+            created = builder.build(store.insert(app));
+        } catch (DuplicateKeyException e) {
+            throw new AppAlreadyExistException("App with name - {0}, already exist", dto.getName());
+        }
+        invalidations.publish(AppInvalidationDTO.builder().appName(created.getName()).appVersion(created.getVersion()).build());
+        changes.created(created);
+        return created;
+    }
+
+    @Override
+    public AppPageDTO findPage(Long after, Integer limit) {
+        final int size = Pages.size(limit, properties.getPagination());
+        return Pages.afterId(store.findPage(after == null ? 0L : after, size + 1).stream()
+            .map(builder::build)
+            .collect(Collectors.toList()), size);
+    }
+
+    @Override
+    public AppPageDTO search(AppSearchDTO search) {
+        final AppSearchCriteria criteria = Pages.criteria(search);
+        final int size = Pages.size(search.getLimit(), properties.getPagination());
+        return Pages.of(store.search(criteria, size + 1), size, criteria, builder::build);
+    }
+
+    @Override
+    public AppDTO findById(Long id) {
+        return store.findById(id)
+            .map(builder::build)
+            .orElseThrow(() -> new AppNotFoundException("App with id - {0}, not found", id));
+    }
+
+    @Override
+    public AppDTO findByNameAndVersion(String name, String version) {
+        return store.findByNameAndVersion(name, version)
+            .map(builder::build)
+            .orElseThrow(() -> new AppNotFoundException("App with name - {0} and version {1}, not found", name, version));
+    }
+
+    @Override
+    public void updateById(Long id, AppDTO dto, Long expectedRevision) {
+        final App app = builder.build(dto);
+        app.setId(id);
+        try {
+            final int rows;
+            try {
+                rows = store.updateNonNullColumns(app, expectedRevision);
+            } catch (DuplicateKeyException e) {
+                throw new AppAlreadyExistException("App with name - {0}, already exist", dto.getName());
+            }
+            if (rows == 0) {
+                throw notUpdated(id, expectedRevision);
+            }
+        } finally {
+            invalidations.publish(AppInvalidationDTO.builder().appId(id).build());
+        }
+        changes.updated(id);
+    }
+
+    @Override
+    public void deleteById(Long id, Long expectedRevision) {
+        try {
+            if (store.deleteById(id, expectedRevision) == 0) {
+                throw notUpdated(id, expectedRevision);
+            }
+        } finally {
+            invalidations.publish(AppInvalidationDTO.builder().appId(id).build());
+        }
+        changes.deleted(id);
+    }
+
+    private long nextId() {
+        idLock.lock();
+        try {
+            if (nextId == endId) {
+                final int blockSize = Math.max(1, properties.getStore().getIdBlockSize());
+                nextId = store.reserveIds(blockSize);
+                endId = nextId + blockSize;
+            }
+            return nextId++;
+        } finally {
+            idLock.unlock();
+        }
+    }
+
+    // Only reached when no row matched, so the extra lookup is paid on the failure path alone.
+    private RuntimeException notUpdated(Long id, Long expectedRevision) {
+        return expectedRevision != null && store.existsById(id)
+            ? new AppPreconditionFailedException("App with id - {0}, is no longer at revision {1}", id, expectedRevision)
+            : new AppNotFoundException("App with id - {0}, not found", id);
+    }
+
+}
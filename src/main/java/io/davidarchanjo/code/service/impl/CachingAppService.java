@@ -0,0 +1,215 @@
+package io.davidarchanjo.code.service.impl;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.davidarchanjo.code.config.AppProperties;
+import io.davidarchanjo.code.event.AppInvalidationBus;
+import io.davidarchanjo.code.event.LocalAppInvalidations;
+import io.davidarchanjo.code.exception.AppNotFoundException;
+import io.davidarchanjo.code.model.dto.AppBatchResultDTO;
+import io.davidarchanjo.code.model.dto.AppDTO;
+import io.davidarchanjo.code.model.dto.AppInvalidationDTO;
+import io.davidarchanjo.code.model.dto.AppPageDTO;
+import io.davidarchanjo.code.model.dto.AppSearchDTO;
+import io.davidarchanjo.code.service.AppService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Read-through cache in front of {@link AppService}. Concurrent misses on the same key share a single
+ * lookup, and every mutation evicts the entries it may have made stale. Given an {@link AppInvalidationBus},
+ * those evictions are also sent to the other instances sharing the store, and theirs applied here. Given
+ * {@link LocalAppInvalidations}, the writes made here without going through the cache evict as its own do.
+ */
+public class CachingAppService implements AppService, MeterBinder {
+
+    private final AppService delegate;
+    private final AppInvalidationBus bus;
+    private final AsyncCache<Long, AppDTO> byId;
+    private final AsyncCache<NameAndVersion, Long> byNameAndVersion;
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder received = new LongAdder();
+
+    // Without a bus, the cache only evicts after the writes made in this instance.
+    public CachingAppService(AppService delegate, AppProperties.Cache properties, AppInvalidationBus bus,
+                             LocalAppInvalidations local) {
+        this.delegate = delegate;
+        this.bus = bus;
+        this.byId = Caffeine.newBuilder()
+            .maximumSize(properties.getMaximumSize())
+            .expireAfterWrite(properties.getExpireAfterWrite())
+            .recordStats()
+            .buildAsync();
+        this.byNameAndVersion = Caffeine.newBuilder()
+            .maximumSize(properties.getMaximumSize())
+            .expireAfterWrite(properties.getExpireAfterWrite())
+            .recordStats()
+            .buildAsync();
+        if (bus != null) {
+            bus.invalidations().subscribe(o -> {
+                received.increment();
+                apply(o);
+            });
+        }
+        if (local != null) {
+            local.invalidations().subscribe(this::invalidate);
+        }
+    }
+
+    @Override
+    public Mono<AppDTO> save(AppDTO dto) {
+        return delegate.save(dto)
+            .doOnNext(o -> invalidate(byName(o)));
+    }
+
+    @Override
+    public Flux<AppDTO> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Mono<AppPageDTO> findPage(Long after, Integer limit) {
+        return delegate.findPage(after, limit);
+    }
+
+    @Override
+    public Mono<AppPageDTO> search(AppSearchDTO search) {
+        return delegate.search(search);
+    }
+
+    @Override
+    public Mono<AppDTO> findById(Long id) {
+        return Mono.fromFuture(() -> detach(byId.get(id, (key, executor) -> delegate.findById(key).toFuture())));
+    }
+
+    /**
+     * Only the id is cached by name and version, and the app read through {@link #findById}, so that evicting an
+     * app by id leaves nothing stale here. An id the app has since been renamed, moved to another version or
+     * deleted under no longer leads to a matching app, and is dropped for a fresh lookup.
+     */
+    @Override
+    public Mono<AppDTO> findByNameAndVersion(String name, String version) {
+        final NameAndVersion key = new NameAndVersion(name, version);
+        return Mono.fromFuture(() -> detach(byNameAndVersion.get(key, (o, executor) -> delegate.findByNameAndVersion(name, version).map(AppDTO::getId).toFuture())))
+            .flatMap(id -> findById(id).onErrorResume(AppNotFoundException.class, __ -> Mono.empty()))
+            .filter(key::matches)
+            .switchIfEmpty(Mono.defer(() -> {
+                byNameAndVersion.synchronous().invalidate(key);
+                return delegate.findByNameAndVersion(name, version);
+            }));
+    }
+
+    @Override
+    public Mono<Void> updateById(Long id, AppDTO dto, Long expectedRevision) {
+        return delegate.updateById(id, dto, expectedRevision)
+            .doFinally(__ -> invalidate(byId(id)));
+    }
+
+    @Override
+    public Mono<Void> deleteById(Long id, Long expectedRevision) {
+        return delegate.deleteById(id, expectedRevision)
+            .doFinally(__ -> invalidate(byId(id)));
+    }
+
+    @Override
+    public Flux<AppBatchResultDTO> saveAll(Flux<AppDTO> dtos) {
+        return delegate.saveAll(dtos)
+            .doOnNext(o -> {
+                if (o.getApp() != null) {
+                    invalidate(byName(o.getApp()));
+                }
+            });
+    }
+
+    @Override
+    public Flux<AppBatchResultDTO> updateAll(Flux<AppDTO> dtos) {
+        return delegate.updateAll(dtos)
+            .doOnNext(o -> {
+                if (o.getId() != null) {
+                    invalidate(byId(o.getId()));
+                }
+            });
+    }
+
+    @Override
+    public Flux<AppBatchResultDTO> deleteAllById(Flux<Long> ids) {
+        return delegate.deleteAllById(ids)
+            .doOnNext(o -> {
+                if (o.getId() != null) {
+                    invalidate(byId(o.getId()));
+                }
+            });
+    }
+
+    // An import may touch any row, so everything cached is dropped, even if it fails part way.
+    @Override
+    public Mono<Long> importAll(Flux<AppDTO> dtos) {
+        return delegate.importAll(dtos)
+            .doFinally(__ -> invalidate(AppInvalidationDTO.builder().build()));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byId, "app.byId");
+        CaffeineCacheMetrics.monitor(registry, byNameAndVersion, "app.byNameAndVersion");
+        if (bus != null) {
+            FunctionCounter.builder("app.cache.invalidations", sent, LongAdder::sum)
+                .description("Cache invalidations sent to the other instances, or received from them")
+                .tag("direction", "sent")
+                .register(registry);
+            FunctionCounter.builder("app.cache.invalidations", received, LongAdder::sum)
+                .description("Cache invalidations sent to the other instances, or received from them")
+                .tag("direction", "received")
+                .register(registry);
+        }
+    }
+
+    private void invalidate(AppInvalidationDTO invalidation) {
+        apply(invalidation);
+        if (bus != null) {
+            sent.increment();
+            bus.publish(invalidation);
+        }
+    }
+
+    private void apply(AppInvalidationDTO invalidation) {
+        if (invalidation.getAppId() != null) {
+            byId.synchronous().invalidate(invalidation.getAppId());
+        } else if (invalidation.getAppName() != null) {
+            byNameAndVersion.synchronous().invalidate(new NameAndVersion(invalidation.getAppName(), invalidation.getAppVersion()));
+        } else {
+            byId.synchronous().invalidateAll();
+            byNameAndVersion.synchronous().invalidateAll();
+        }
+    }
+
+    private static AppInvalidationDTO byId(Long id) {
+        return AppInvalidationDTO.builder().appId(id).build();
+    }
+
+    private static AppInvalidationDTO byName(AppDTO dto) {
+        return AppInvalidationDTO.builder().appName(dto.getName()).appVersion(dto.getVersion()).build();
+    }
+
+    // Subscribers cancelling must not cancel the shared future other callers are waiting on.
+    private static <T> CompletableFuture<T> detach(CompletableFuture<T> future) {
+        return future.thenApply(Function.identity());
+    }
+
+    private record NameAndVersion(String name, String version) {
+
+        boolean matches(AppDTO dto) {
+            return name.equals(dto.getName()) && version.equals(dto.getVersion());
+        }
+
+    }
+
+}
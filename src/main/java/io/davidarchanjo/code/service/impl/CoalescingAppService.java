@@ -0,0 +1,138 @@
+package io.davidarchanjo.code.service.impl;
+
+import io.davidarchanjo.code.model.dto.AppBatchResultDTO;
+import io.davidarchanjo.code.model.dto.AppDTO;
+import io.davidarchanjo.code.model.dto.AppPageDTO;
+import io.davidarchanjo.code.model.dto.AppSearchDTO;
+import io.davidarchanjo.code.service.AppService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight reads in front of {@link AppService}: concurrent calls with the same arguments subscribe to
+ * the one lookup already in flight and all receive its result or error, instead of each querying and
+ * mapping on its own. Nothing is kept once the lookup terminates, so a later call always reads afresh, although
+ * one joining a lookup that started before a concurrent write may still see the state prior to it. The shared
+ * lookup runs in the context of the call that started it.
+ */
+public class CoalescingAppService implements AppService, MeterBinder {
+
+    private static final String METRIC_NAME = "app.service.coalesced";
+    private static final List<String> METHODS = List.of("findPage", "search", "findById", "findByNameAndVersion");
+
+    private final AppService delegate;
+    private final ConcurrentMap<Key, Mono<?>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> coalesced = new ConcurrentHashMap<>();
+
+    public CoalescingAppService(AppService delegate) {
+        this.delegate = delegate;
+        METHODS.forEach(o -> coalesced.put(o, new LongAdder()));
+    }
+
+    @Override
+    public Mono<AppDTO> save(AppDTO dto) {
+        return delegate.save(dto);
+    }
+
+    @Override
+    public Flux<AppDTO> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Mono<AppPageDTO> findPage(Long after, Integer limit) {
+        return coalesce("findPage", Arrays.asList(after, limit), () -> delegate.findPage(after, limit));
+    }
+
+    @Override
+    public Mono<AppPageDTO> search(AppSearchDTO search) {
+        return coalesce("search", search, () -> delegate.search(search));
+    }
+
+    @Override
+    public Mono<AppDTO> findById(Long id) {
+        return coalesce("findById", id, () -> delegate.findById(id));
+    }
+
+    @Override
+    public Mono<AppDTO> findByNameAndVersion(String name, String version) {
+        return coalesce("findByNameAndVersion", Arrays.asList(name, version), () -> delegate.findByNameAndVersion(name, version));
+    }
+
+    @Override
+    public Mono<Void> updateById(Long id, AppDTO dto, Long expectedRevision) {
+        return delegate.updateById(id, dto, expectedRevision);
+    }
+
+    @Override
+    public Mono<Void> deleteById(Long id, Long expectedRevision) {
+        return delegate.deleteById(id, expectedRevision);
+    }
+
+    @Override
+    public Flux<AppBatchResultDTO> saveAll(Flux<AppDTO> dtos) {
+        return delegate.saveAll(dtos);
+    }
+
+    @Override
+    public Flux<AppBatchResultDTO> updateAll(Flux<AppDTO> dtos) {
+        return delegate.updateAll(dtos);
+    }
+
+    @Override
+    public Flux<AppBatchResultDTO> deleteAllById(Flux<Long> ids) {
+        return delegate.deleteAllById(ids);
+    }
+
+    @Override
+    public Mono<Long> importAll(Flux<AppDTO> dtos) {
+        return delegate.importAll(dtos);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        coalesced.forEach((method, count) -> FunctionCounter.builder(METRIC_NAME, count, LongAdder::sum)
+            .description("Calls served by joining an identical call already in flight")
+            .tag("method", method)
+            .register(registry));
+        Gauge.builder("app.service.in.flight", inFlight, Map::size)
+            .description("Distinct reads currently in flight")
+            .register(registry);
+    }
+
+    // The entry is dropped before the result reaches the callers, so none that wakes up on it can join a lookup
+    // that has already finished. Once started, the shared lookup runs to completion even if every caller cancels.
+    @SuppressWarnings("unchecked")
+    private <T> Mono<T> coalesce(String method, Object arguments, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            final Key key = new Key(method, arguments);
+            final boolean[] started = new boolean[1];
+            final Mono<T> shared = (Mono<T>) inFlight.computeIfAbsent(key, o -> {
+                started[0] = true;
+                return call.get()
+                    .doOnTerminate(() -> inFlight.remove(o))
+                    .share();
+            });
+            if (!started[0]) {
+                coalesced.get(method).increment();
+            }
+            return shared;
+        });
+    }
+
+    private record Key(String method, Object arguments) {
+    }
+
+}
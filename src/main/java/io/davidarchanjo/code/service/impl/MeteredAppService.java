@@ -0,0 +1,114 @@
+package io.davidarchanjo.code.service.impl;
+
+import io.davidarchanjo.code.model.dto.AppBatchResultDTO;
+import io.davidarchanjo.code.model.dto.AppDTO;
+import io.davidarchanjo.code.model.dto.AppPageDTO;
+import io.davidarchanjo.code.model.dto.AppSearchDTO;
+import io.davidarchanjo.code.service.AppService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Times every {@link AppService} call from subscription to termination, tagged by method, outcome and
+ * exception, under the {@code app.service} timer.
+ */
+public class MeteredAppService implements AppService {
+
+    private static final String METRIC_NAME = "app.service";
+    private static final String NONE = "None";
+
+    private final AppService delegate;
+    private final MeterRegistry registry;
+
+    public MeteredAppService(AppService delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+    }
+
+    @Override
+    public Mono<AppDTO> save(AppDTO dto) {
+        return timed("save", delegate.save(dto));
+    }
+
+    @Override
+    public Flux<AppDTO> findAll() {
+        return timed("findAll", delegate.findAll());
+    }
+
+    @Override
+    public Mono<AppPageDTO> findPage(Long after, Integer limit) {
+        return timed("findPage", delegate.findPage(after, limit));
+    }
+
+    @Override
+    public Mono<AppPageDTO> search(AppSearchDTO search) {
+        return timed("search", delegate.search(search));
+    }
+
+    @Override
+    public Mono<AppDTO> findById(Long id) {
+        return timed("findById", delegate.findById(id));
+    }
+
+    @Override
+    public Mono<AppDTO> findByNameAndVersion(String name, String version) {
+        return timed("findByNameAndVersion", delegate.findByNameAndVersion(name, version));
+    }
+
+    @Override
+    public Mono<Void> updateById(Long id, AppDTO dto, Long expectedRevision) {
+        return timed("updateById", delegate.updateById(id, dto, expectedRevision));
+    }
+
+    @Override
+    public Mono<Void> deleteById(Long id, Long expectedRevision) {
+        return timed("deleteById", delegate.deleteById(id, expectedRevision));
+    }
+
+    @Override
+    public Flux<AppBatchResultDTO> saveAll(Flux<AppDTO> dtos) {
+        return timed("saveAll", delegate.saveAll(dtos));
+    }
+
+    @Override
+    public Flux<AppBatchResultDTO> updateAll(Flux<AppDTO> dtos) {
+        return timed("updateAll", delegate.updateAll(dtos));
+    }
+
+    @Override
+    public Flux<AppBatchResultDTO> deleteAllById(Flux<Long> ids) {
+        return timed("deleteAllById", delegate.deleteAllById(ids));
+    }
+
+    @Override
+    public Mono<Long> importAll(Flux<AppDTO> dtos) {
+        return timed("importAll", delegate.importAll(dtos));
+    }
+
+    private <T> Mono<T> timed(String method, Mono<T> source) {
+        return Mono.defer(() -> {
+            final Timer.Sample sample = Timer.start(registry);
+            return source
+                .doOnSuccess(o -> sample.stop(timer(method, "SUCCESS", NONE)))
+                .doOnError(e -> sample.stop(timer(method, "ERROR", e.getClass().getSimpleName())))
+                .doOnCancel(() -> sample.stop(timer(method, "CANCELED", NONE)));
+        });
+    }
+
+    private <T> Flux<T> timed(String method, Flux<T> source) {
+        return Flux.defer(() -> {
+            final Timer.Sample sample = Timer.start(registry);
+            return source
+                .doOnComplete(() -> sample.stop(timer(method, "SUCCESS", NONE)))
+                .doOnError(e -> sample.stop(timer(method, "ERROR", e.getClass().getSimpleName())))
+                .doOnCancel(() -> sample.stop(timer(method, "CANCELED", NONE)));
+        });
+    }
+
+    private Timer timer(String method, String outcome, String exception) {
+        return registry.timer(METRIC_NAME, "method", method, "outcome", outcome, "exception", exception);
+    }
+
+}
@@ -0,0 +1,87 @@
+package io.davidarchanjo.code.service.impl;
+
+import io.davidarchanjo.code.exception.AppOverloadedException;
+import io.davidarchanjo.code.model.dto.AppDTO;
+import io.davidarchanjo.code.model.dto.AppPageDTO;
+import io.davidarchanjo.code.model.dto.AppSearchDTO;
+import io.davidarchanjo.code.service.SingleAppService;
+import io.davidarchanjo.code.service.BlockingAppService;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs each call of a {@link BlockingAppService} on a scheduler whose threads may block, so that the blocking
+ * execution mode is served by the same request handling as the reactive one without ever holding an event
+ * loop. The bulk operations have no blocking counterpart, so only the single ones are offered, and the batch
+ * routes are left to the reactive stack.
+ */
+@RequiredArgsConstructor
+public class OffloadingAppService implements SingleAppService {
+
+    private final BlockingAppService delegate;
+    private final Scheduler scheduler;
+
+    @Override
+    public Mono<AppDTO> save(AppDTO dto) {
+        return offload(() -> delegate.save(dto));
+    }
+
+    @Override
+    public Mono<AppPageDTO> findPage(Long after, Integer limit) {
+        return offload(() -> delegate.findPage(after, limit));
+    }
+
+    @Override
+    public Mono<AppPageDTO> search(AppSearchDTO search) {
+        return offload(() -> delegate.search(search));
+    }
+
+    @Override
+    public Mono<AppDTO> findById(Long id) {
+        return offload(() -> delegate.findById(id));
+    }
+
+    @Override
+    public Mono<AppDTO> findByNameAndVersion(String name, String version) {
+        return offload(() -> delegate.findByNameAndVersion(name, version));
+    }
+
+    @Override
+    public Mono<Void> updateById(Long id, AppDTO dto, Long expectedRevision) {
+        return offload(() -> {
+            delegate.updateById(id, dto, expectedRevision);
+            return null;
+        });
+    }
+
+    @Override
+    public Mono<Void> deleteById(Long id, Long expectedRevision) {
+        return offload(() -> {
+            delegate.deleteById(id, expectedRevision);
+            return null;
+        });
+    }
+
+    // Page after page, each read on its own call, so that no thread is held for the whole listing.
+    @Override
+    public Flux<AppDTO> findAll() {
+        return offload(() -> delegate.findPage(null, Integer.MAX_VALUE))
+            .expand(o -> o.getNext() == null
+                ? Mono.empty()
+                : offload(() -> delegate.findPage(Long.valueOf(o.getNext()), Integer.MAX_VALUE)))
+            .flatMapIterable(AppPageDTO::getContent);
+    }
+
+    // A bounded scheduler refuses the calls beyond its queue, which are answered as overloaded.
+    private <T> Mono<T> offload(Callable<T> call) {
+        return Mono.fromCallable(call)
+            .subscribeOn(scheduler)
+            .onErrorMap(RejectedExecutionException.class, __ -> new AppOverloadedException("Blocking execution queue is full"));
+    }
+
+}
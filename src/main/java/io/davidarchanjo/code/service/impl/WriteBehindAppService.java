@@ -0,0 +1,451 @@
+package io.davidarchanjo.code.service.impl;
+
+import io.davidarchanjo.code.config.AppProperties;
+import io.davidarchanjo.code.event.LocalAppInvalidations;
+import io.davidarchanjo.code.exception.AppAlreadyExistException;
+import io.davidarchanjo.code.exception.AppInvalidInputException;
+import io.davidarchanjo.code.exception.AppNotFoundException;
+import io.davidarchanjo.code.exception.AppOverloadedException;
+import io.davidarchanjo.code.model.dto.AppBatchResultDTO;
+import io.davidarchanjo.code.model.dto.AppDTO;
+import io.davidarchanjo.code.model.dto.AppInvalidationDTO;
+import io.davidarchanjo.code.model.dto.AppPageDTO;
+import io.davidarchanjo.code.model.dto.AppSearchDTO;
+import io.davidarchanjo.code.service.AppService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind in front of {@link AppService}: creations and unconditional updates are queued and flushed in
+ * groups through the batched writes, once {@code app.write-behind.flush-size} of them are waiting or every
+ * {@code app.write-behind.flush-interval}, one group at a time. The line holds at most
+ * {@code app.write-behind.capacity} writes, beyond which they are refused as overloaded; it is a lock-free
+ * queue whose size is reserved with compare-and-set. With {@code app.write-behind.ack} set to {@code flush}
+ * every caller waits for the outcome of its write; set to {@code enqueue}, updates are acknowledged once queued
+ * and their failures only logged and counted, while creations still wait, as their id is assigned when stored.
+ * <p>
+ * Lookups by id, and by name and version of the stored app, see the updates still queued for it, the revision
+ * counting one per update, so that a client reads what it wrote. Conditional updates and deletes wait for the
+ * writes queued for the same app before being applied directly. Listings, searches and the bulk routes read and
+ * write the store as is. As the flushes write below the cache, which may hold an app as its queued updates showed
+ * it, a failed update evicts the app through {@link LocalAppInvalidations}.
+ */
+@Slf4j
+public class WriteBehindAppService implements AppService, AutoCloseable {
+
+    private static final String METRIC_NAME = "app.write.behind";
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(30);
+
+    private final AppService delegate;
+    private final LocalAppInvalidations invalidations;
+    private final int capacity;
+    private final int flushSize;
+    private final boolean ackOnEnqueue;
+    private final Queue<Write> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    private final ConcurrentMap<Long, Overlay> pending = new ConcurrentHashMap<>();
+    private final Map<Outcome, LongAdder> outcomes = new EnumMap<>(Outcome.class);
+    private final Disposable ticker;
+    private volatile Timer flushes;
+
+    public WriteBehindAppService(AppService delegate, AppProperties.WriteBehind properties, LocalAppInvalidations invalidations) {
+        this.delegate = delegate;
+        this.invalidations = invalidations;
+        this.capacity = properties.getCapacity();
+        this.flushSize = properties.getFlushSize();
+        this.ackOnEnqueue = properties.getAck() == AppProperties.WriteBehind.Ack.ENQUEUE;
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, new LongAdder());
+        }
+        this.ticker = Flux.interval(properties.getFlushInterval())
+            .subscribe(__ -> flush());
+    }
+
+    @Override
+    public Mono<AppDTO> save(AppDTO dto) {
+        return Mono.defer(() -> {
+            final Write write = new Write(null, dto);
+            if (!enqueue(write)) {
+                return Mono.error(overloaded());
+            }
+            return write.result.asMono().flatMap(o -> o.getStatus() == HttpStatus.CREATED.value()
+                ? Mono.just(o.getApp())
+                : Mono.error(failure(o, dto)));
+        });
+    }
+
+    @Override
+    public Flux<AppDTO> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Mono<AppPageDTO> findPage(Long after, Integer limit) {
+        return delegate.findPage(after, limit);
+    }
+
+    @Override
+    public Mono<AppPageDTO> search(AppSearchDTO search) {
+        return delegate.search(search);
+    }
+
+    @Override
+    public Mono<AppDTO> findById(Long id) {
+        return delegate.findById(id)
+            .map(this::withPending);
+    }
+
+    @Override
+    public Mono<AppDTO> findByNameAndVersion(String name, String version) {
+        return delegate.findByNameAndVersion(name, version)
+            .map(this::withPending)
+            .filter(o -> o.getName().equals(name) && o.getVersion().equals(version))
+            .switchIfEmpty(Mono.error(() -> new AppNotFoundException("App with name - {0} and version {1}, not found", name, version)));
+    }
+
+    @Override
+    public Mono<Void> updateById(Long id, AppDTO dto, Long expectedRevision) {
+        if (expectedRevision != null) {
+            return settled(id).then(Mono.defer(() -> delegate.updateById(id, dto, expectedRevision)));
+        }
+        return Mono.defer(() -> {
+            final Write write = new Write(id, dto);
+            if (!enqueue(write)) {
+                return Mono.error(overloaded());
+            }
+            if (ackOnEnqueue) {
+                return Mono.empty();
+            }
+            return write.result.asMono().flatMap(o -> o.getStatus() == HttpStatus.NO_CONTENT.value()
+                ? Mono.<Void>empty()
+                : Mono.error(failure(o, dto)));
+        });
+    }
+
+    @Override
+    public Mono<Void> deleteById(Long id, Long expectedRevision) {
+        return settled(id).then(Mono.defer(() -> delegate.deleteById(id, expectedRevision)));
+    }
+
+    @Override
+    public Flux<AppBatchResultDTO> saveAll(Flux<AppDTO> dtos) {
+        return delegate.saveAll(dtos);
+    }
+
+    @Override
+    public Flux<AppBatchResultDTO> updateAll(Flux<AppDTO> dtos) {
+        return delegate.updateAll(dtos);
+    }
+
+    @Override
+    public Flux<AppBatchResultDTO> deleteAllById(Flux<Long> ids) {
+        return delegate.deleteAllById(ids);
+    }
+
+    @Override
+    public Mono<Long> importAll(Flux<AppDTO> dtos) {
+        return delegate.importAll(dtos);
+    }
+
+    // Not a MeterBinder: as a bean it would then be bound by the registry it is itself needed to build.
+    public void bindTo(MeterRegistry registry) {
+        flushes = Timer.builder(METRIC_NAME + ".flush")
+            .description("Time taken to store a group of queued writes")
+            .register(registry);
+        Gauge.builder(METRIC_NAME + ".queued", depth, AtomicInteger::get)
+            .description("Writes waiting to be flushed")
+            .register(registry);
+        outcomes.forEach((outcome, count) -> FunctionCounter.builder(METRIC_NAME + ".writes", count, LongAdder::sum)
+            .description("Queued writes stored, failed once flushed, or refused as the queue was full")
+            .tag("outcome", outcome.name())
+            .register(registry));
+    }
+
+    // Stops the timer and flushes what is left, so that acknowledged writes are not lost on a clean shutdown.
+    @Override
+    public void close() {
+        ticker.dispose();
+        final long deadline = System.nanoTime() + CLOSE_TIMEOUT.toNanos();
+        while ((depth.get() > 0 || flushing.get()) && System.nanoTime() - deadline < 0) {
+            flush();
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (depth.get() > 0) {
+            log.warn("{} queued writes not flushed on shutdown", depth.get());
+        }
+    }
+
+    // The updates are made visible to lookups before being queued, so a flush can never finish ahead of them.
+    private boolean enqueue(Write write) {
+        for (;;) {
+            final int queued = depth.get();
+            if (queued >= capacity) {
+                outcomes.get(Outcome.REJECTED).increment();
+                return false;
+            }
+            if (depth.compareAndSet(queued, queued + 1)) {
+                break;
+            }
+        }
+        if (write.id != null) {
+            pending.compute(write.id, (id, o) -> Overlay.merge(o, write));
+        }
+        queue.offer(write);
+        if (depth.get() >= flushSize) {
+            flush();
+        }
+        return true;
+    }
+
+    // Only one group is stored at a time; writes queued meanwhile make up the next one, which starts straight
+    // away once enough of them are waiting.
+    private void flush() {
+        if (!flushing.compareAndSet(false, true)) {
+            return;
+        }
+        final List<Write> group = new ArrayList<>(Math.min(flushSize, depth.get()));
+        for (Write write; group.size() < flushSize && (write = queue.poll()) != null; ) {
+            group.add(write);
+        }
+        if (group.isEmpty()) {
+            flushing.set(false);
+            return;
+        }
+        depth.addAndGet(-group.size());
+
+        final long start = System.nanoTime();
+        store(group)
+            .doFinally(__ -> {
+                final Timer timer = flushes;
+                if (timer != null) {
+                    timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+                flushing.set(false);
+                if (depth.get() >= flushSize) {
+                    flush();
+                }
+            })
+            .subscribe();
+    }
+
+    private Mono<Void> store(List<Write> group) {
+        final List<Write> creations = new ArrayList<>();
+        final List<Write> updates = new ArrayList<>();
+        for (Write write : group) {
+            (write.id == null ? creations : updates).add(write);
+        }
+
+        final Mono<Void> created = creations.isEmpty() ? Mono.empty() : delegate.saveAll(Flux.fromIterable(creations).map(o -> o.dto))
+            .doOnNext(o -> complete(creations.get((int) o.getIndex()), o))
+            .then();
+        final Mono<Void> updated = updates.isEmpty() ? Mono.empty() : delegate.updateAll(Flux.fromIterable(updates).map(Write::withId))
+            .doOnNext(o -> complete(updates.get((int) o.getIndex()), o))
+            .then()
+            .onErrorResume(__ -> updateOneByOne(updates));
+        return created.then(updated)
+            .onErrorResume(e -> {
+                group.forEach(o -> fail(o, e));
+                return Mono.empty();
+            });
+    }
+
+    // A batched update taking a name already in use fails part way, past the rows already written, so the
+    // updates left are retried one by one to tell the failing ones apart.
+    private Mono<Void> updateOneByOne(List<Write> updates) {
+        return Flux.fromIterable(updates)
+            .filter(o -> !o.done.get())
+            .concatMap(o -> delegate.updateById(o.id, o.dto)
+                .doOnSuccess(__ -> complete(o, AppBatchResultDTO.builder().status(HttpStatus.NO_CONTENT.value()).id(o.id).build()))
+                .onErrorResume(e -> {
+                    fail(o, e);
+                    return Mono.empty();
+                }))
+            .then();
+    }
+
+    private void complete(Write write, AppBatchResultDTO result) {
+        if (!write.done.compareAndSet(false, true)) {
+            return;
+        }
+        final boolean stored = result.getStatus() < HttpStatus.BAD_REQUEST.value();
+        release(write, stored);
+        outcomes.get(stored ? Outcome.FLUSHED : Outcome.FAILED).increment();
+        if (!stored && write.id != null) {
+            evict(write.id);
+            if (ackOnEnqueue) {
+                log.warn("Queued update of app {} failed - {}", write.id, result.getError() == null ? result.getStatus() : result.getError().getDetails());
+            }
+        }
+        write.result.tryEmitValue(result);
+    }
+
+    private void fail(Write write, Throwable e) {
+        if (!write.done.compareAndSet(false, true)) {
+            return;
+        }
+        release(write, false);
+        outcomes.get(Outcome.FAILED).increment();
+        if (write.id != null) {
+            evict(write.id);
+            if (ackOnEnqueue) {
+                log.warn("Queued update of app {} failed - {}", write.id, e.getMessage());
+            }
+        }
+        write.result.tryEmitError(e);
+    }
+
+    private void release(Write write, boolean stored) {
+        if (write.id != null) {
+            pending.computeIfPresent(write.id, (id, o) -> o.release(write, stored));
+        }
+    }
+
+    // Once the overlay is released, so that the app is cached again as stored; the cache resolves its lookups by
+    // name and version through the id, so evicting the id drops those too.
+    private void evict(Long id) {
+        invalidations.publish(AppInvalidationDTO.builder().appId(id).build());
+    }
+
+    // Waits for the last write queued for the app, which is stored after all the ones before it.
+    private Mono<Void> settled(Long id) {
+        return Mono.defer(() -> {
+            final Overlay overlay = pending.get(id);
+            if (overlay == null) {
+                return Mono.empty();
+            }
+            flush();
+            return overlay.last().result.asMono()
+                .onErrorResume(__ -> Mono.empty())
+                .then();
+        });
+    }
+
+    private AppDTO withPending(AppDTO stored) {
+        final Overlay overlay = pending.get(stored.getId());
+        if (overlay == null) {
+            return stored;
+        }
+        final AppDTO dto = new AppDTO(
+            overlay.fields().getName() == null ? stored.getName() : overlay.fields().getName(),
+            overlay.fields().getVersion() == null ? stored.getVersion() : overlay.fields().getVersion(),
+            overlay.fields().getAuthor() == null ? stored.getAuthor() : overlay.fields().getAuthor());
+        dto.setId(stored.getId());
+        dto.setRevision(stored.getRevision() == null ? null : stored.getRevision() + overlay.count());
+        return dto;
+    }
+
+    private static Throwable failure(AppBatchResultDTO result, AppDTO dto) {
+        if (result.getStatus() == HttpStatus.CONFLICT.value()) {
+            return new AppAlreadyExistException("App with name - {0}, already exist", dto.getName());
+        }
+        if (result.getStatus() == HttpStatus.NOT_FOUND.value()) {
+            return new AppNotFoundException("App with id - {0}, not found", result.getId());
+        }
+        return result.getError() != null && result.getError().getDetails() != null
+            ? new AppInvalidInputException(result.getError().getDetails())
+            : new AppInvalidInputException("Invalid app - {0}", dto.getName());
+    }
+
+    private static AppOverloadedException overloaded() {
+        return new AppOverloadedException("Write-behind queue is full");
+    }
+
+    private enum Outcome {
+        FLUSHED, FAILED, REJECTED
+    }
+
+    private static final class Write {
+
+        private final Long id;
+        private final AppDTO dto;
+        private final AtomicBoolean done = new AtomicBoolean();
+        private final Sinks.One<AppBatchResultDTO> result = Sinks.one();
+
+        Write(Long id, AppDTO dto) {
+            this.id = id;
+            this.dto = dto;
+        }
+
+        AppDTO withId() {
+            final AppDTO copy = new AppDTO(dto.getName(), dto.getVersion(), dto.getAuthor());
+            copy.setId(id);
+            return copy;
+        }
+
+    }
+
+    /**
+     * The fields set by the updates queued for an app, later ones winning, and the updates still queued, in order.
+     * A stored update leaves its fields in, as the store now holds them too; a failed one has them rebuilt from
+     * the updates left, so that lookups stop showing what was never stored.
+     */
+    private record Overlay(AppDTO fields, List<Write> queued) {
+
+        static Overlay merge(Overlay overlay, Write write) {
+            final List<Write> queued = new ArrayList<>(overlay == null ? List.of() : overlay.queued());
+            queued.add(write);
+            return new Overlay(merge(overlay == null ? new AppDTO() : overlay.fields(), write), List.copyOf(queued));
+        }
+
+        Overlay release(Write write, boolean stored) {
+            final List<Write> queued = new ArrayList<>(queued());
+            queued.remove(write);
+            if (queued.isEmpty()) {
+                return null;
+            }
+            if (stored) {
+                return new Overlay(fields, List.copyOf(queued));
+            }
+            AppDTO fields = new AppDTO();
+            for (Write o : queued) {
+                fields = merge(fields, o);
+            }
+            return new Overlay(fields, List.copyOf(queued));
+        }
+
+        int count() {
+            return queued.size();
+        }
+
+        Write last() {
+            return queued.get(queued.size() - 1);
+        }
+
+        private static AppDTO merge(AppDTO fields, Write write) {
+            return new AppDTO(
+                write.dto.getName() == null ? fields.getName() : write.dto.getName(),
+                write.dto.getVersion() == null ? fields.getVersion() : write.dto.getVersion(),
+                write.dto.getAuthor() == null ? fields.getAuthor() : write.dto.getAuthor());
+        }
+
+    }
+
+}
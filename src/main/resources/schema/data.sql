@@ -1,3 +1,6 @@
-INSERT INTO app (id, name, author, version) VALUES (1, 'Netflix', 'Foo Bar', '0.0.1-SNAPSHOT');
-INSERT INTO app (id, name, author, version) VALUES (2, 'Facebook', 'Foo Bar', '0.0.1-SNAPSHOT');
-INSERT INTO app (id, name, author, version) VALUES (3, 'Chrome', 'Foo Bar', '0.0.1-SNAPSHOT');
\ No newline at end of file
+MERGE INTO app (id, name, author, version, version_key) KEY (id) VALUES (1, 'Netflix', 'Foo Bar', '0.0.1-SNAPSHOT', '0000000000.0000000000.0000000001-SNAPSHOT');
+MERGE INTO app (id, name, author, version, version_key) KEY (id) VALUES (2, 'Facebook', 'Foo Bar', '0.0.1-SNAPSHOT', '0000000000.0000000000.0000000001-SNAPSHOT');
+MERGE INTO app (id, name, author, version, version_key) KEY (id) VALUES (3, 'Chrome', 'Foo Bar', '0.0.1-SNAPSHOT', '0000000000.0000000000.0000000001-SNAPSHOT');
+
+-- Ids are reserved in blocks from past the highest one stored, the first time the schema is applied.
+INSERT INTO id_block (name, next_id) SELECT 'app', COALESCE((SELECT MAX(id) FROM app), 0) + 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM id_block WHERE name = 'app');
@@ -1,7 +1,19 @@
-CREATE TABLE app (
-    id INTEGER NOT NULL AUTO_INCREMENT,
+CREATE TABLE IF NOT EXISTS app (
+    id BIGINT NOT NULL,
     name VARCHAR(255) NOT NULL,
     author VARCHAR(255) NOT NULL,
     version VARCHAR(255) NOT NULL,
+    version_key VARCHAR NOT NULL,
+    revision BIGINT NOT NULL DEFAULT 0,
     PRIMARY KEY (id)
-);
\ No newline at end of file
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_app_name ON app (name);
+CREATE INDEX IF NOT EXISTS ix_app_author ON app (author);
+CREATE INDEX IF NOT EXISTS ix_app_version_key ON app (version_key);
+
+CREATE TABLE IF NOT EXISTS id_block (
+    name VARCHAR(64) NOT NULL,
+    next_id BIGINT NOT NULL,
+    PRIMARY KEY (name)
+);
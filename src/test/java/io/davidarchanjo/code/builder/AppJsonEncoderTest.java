@@ -0,0 +1,115 @@
+package io.davidarchanjo.code.builder;
+
+import io.davidarchanjo.code.model.dto.AppDTO;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The pre-encoded writer stands in for Jackson on the wire, so whatever it writes, alone, as a JSON array or as
+ * NDJSON, must be the very bytes Jackson writes, down to how each string is escaped.
+ */
+class AppJsonEncoderTest {
+
+    private static final ResolvableType APP_TYPE = ResolvableType.forClass(AppDTO.class);
+
+    private static final List<AppDTO> TRICKY = List.of(
+        app(1L, "Netflix", "0.0.1-SNAPSHOT", "Foo Bar"),
+        app(null, null, null, null),
+        app(0L, "", "", ""),
+        app(-7L, "Quote \" and \\ and /", "tab\tline\nfeed\rform\fback\b", "ctl \u0000\u0001\u001F\u007F"),
+        app(Long.MAX_VALUE, "Caf\u00E9 \u20AC \u65E5\u672C \u2028", "\uD83D\uDE00 emoji", "lone \uD83D and \uDE00"),
+        app(Long.MIN_VALUE, "\uDBFF\uDFFF", "\u0080\u07FF\u0800\uFFFF", "end\\"));
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+    private final Jackson2JsonEncoder jackson = new Jackson2JsonEncoder(Jackson2ObjectMapperBuilder.json().build());
+    private final AppJsonEncoder preEncoded = new AppJsonEncoder();
+
+    @ParameterizedTest
+    @MethodSource("mimeTypes")
+    void writesSingleAppAsJackson(MimeType mimeType) {
+        for (AppDTO app : TRICKY) {
+            assertSameBytes(Mono.just(app), mimeType);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("mimeTypes")
+    void writesAppsAsJackson(MimeType mimeType) {
+        assertSameBytes(Flux.just(TRICKY.get(0)), mimeType);
+        assertSameBytes(Flux.fromIterable(TRICKY), mimeType);
+        // Beyond the apps written to a single buffer.
+        assertSameBytes(Flux.fromIterable(Stream.concat(TRICKY.stream(), IntStream.range(0, 150)
+                .mapToObj(i -> app((long) i * 1_000_003, "App " + i, "1.0." + i, "Author \u00E9 " + i)))
+            .collect(Collectors.toList())), mimeType);
+    }
+
+    @ParameterizedTest
+    @MethodSource("mimeTypes")
+    void writesNoAppsAsJackson(MimeType mimeType) {
+        assertSameBytes(Flux.empty(), mimeType);
+    }
+
+    @ParameterizedTest
+    @MethodSource("mimeTypes")
+    void escapesStringsAsJackson(MimeType mimeType) {
+        final String[] strings = {
+            "\"quoted\"", "back\\slash", "slash/", "\u0000\u0001\u0008\t\n\u000B\f\r\u001B\u001F", "\u007F",
+            "\u00E9\u00DF\u00FF", "\u20AC\u65E5\u672C", "\u2028\u2029", "\uD83D\uDE00\uD83D\uDC4D", "\uDBFF\uDFFF",
+            "\uD83D", "\uDE00", "a\uDE00\uD83Db"
+        };
+        for (String string : strings) {
+            assertSameBytes(Mono.just(app(1L, string, string, string)), mimeType);
+        }
+    }
+
+    static Stream<MimeType> mimeTypes() {
+        return Stream.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON);
+    }
+
+    private void assertSameBytes(Publisher<AppDTO> apps, MimeType mimeType) {
+        final byte[] expected = bytes(jackson, apps, mimeType);
+        final byte[] actual = bytes(preEncoded, apps, mimeType);
+        assertThat(actual)
+            .as("%s written by Jackson as%n%s", mimeType, new String(expected, StandardCharsets.UTF_8))
+            .isEqualTo(expected);
+    }
+
+    private byte[] bytes(Encoder<? super AppDTO> encoder, Publisher<AppDTO> apps, MimeType mimeType) {
+        return DataBufferUtils.join(encoder.encode(apps, bufferFactory, APP_TYPE, mimeType, null))
+            .map(o -> {
+                final byte[] bytes = new byte[o.readableByteCount()];
+                o.read(bytes);
+                DataBufferUtils.release(o);
+                return bytes;
+            })
+            .defaultIfEmpty(new byte[0])
+            .block();
+    }
+
+    private static AppDTO app(Long id, String name, String version, String author) {
+        final AppDTO o = new AppDTO(name, version, author);
+        o.setId(id);
+        return o;
+    }
+
+}
@@ -0,0 +1,70 @@
+package io.davidarchanjo.code.builder;
+
+import io.davidarchanjo.code.builder.AppTransferCodec.Format;
+import io.davidarchanjo.code.config.AppProperties;
+import io.davidarchanjo.code.exception.AppInvalidInputException;
+import io.davidarchanjo.code.model.dto.AppDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Whatever an export writes, an import reads back as the same apps, including values the format has to quote.
+ */
+class AppTransferCodecTest {
+
+    private static final List<AppDTO> TRICKY = List.of(
+        app(1L, "Netflix", "0.0.1-SNAPSHOT", "Foo Bar"),
+        app(2L, "Multi\nline", "1.0", "Line one\r\nline two\n"),
+        app(3L, "Comma, \"quote\"", "\"", "\n\"\n"),
+        app(4L, "", "", ","));
+
+    private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+    private final AppTransferCodec codec = new AppTransferCodec(Jackson2ObjectMapperBuilder.json().build(), new AppProperties());
+
+    @ParameterizedTest
+    @EnumSource(Format.class)
+    void readsBackWhatItWrites(Format format) {
+        final List<AppDTO> apps = codec.decode(codec.encode(Flux.fromIterable(TRICKY), format, bufferFactory), format)
+            .collectList()
+            .block();
+
+        assertThat(apps).isEqualTo(TRICKY);
+    }
+
+    @Test
+    void readsQuotedLineBreaksSplitAcrossBuffers() {
+        final String body = "id,appName,devName,appVersion,revision\r\n1,\"One\r\ntwo\",\"Foo\nBar\",1.0,0\r\n";
+        final Flux<DataBuffer> chunks = Flux.fromArray(body.split("(?<=\n)|(?<=\")"))
+            .map(o -> bufferFactory.wrap(o.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(codec.decode(chunks, Format.CSV).collectList().block())
+            .containsExactly(app(1L, "One\r\ntwo", "1.0", "Foo\nBar"));
+    }
+
+    @Test
+    void rejectsQuotedFieldLeftOpen() {
+        final String body = "id,appName,devName,appVersion,revision\n1,\"Netflix\nFoo Bar,1.0,0\n";
+
+        assertThatThrownBy(() -> codec.decode(Flux.just(bufferFactory.wrap(body.getBytes(StandardCharsets.UTF_8))), Format.CSV).blockLast())
+            .isInstanceOf(AppInvalidInputException.class);
+    }
+
+    private static AppDTO app(Long id, String name, String version, String author) {
+        final AppDTO o = new AppDTO(name, version, author);
+        o.setId(id);
+        o.setRevision(0L);
+        return o;
+    }
+
+}
@@ -0,0 +1,283 @@
+package io.davidarchanjo.code.repository.impl;
+
+import io.davidarchanjo.code.builder.Versions;
+import io.davidarchanjo.code.model.domain.App;
+import io.davidarchanjo.code.model.domain.AppSearchCriteria;
+import io.davidarchanjo.code.model.domain.AppSort;
+import io.davidarchanjo.code.repository.AppStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * What the service relies on from any {@link AppStore}, run against each of them by a subclass handing out an
+ * empty store: unique names, revisions bumped by every update and checked by the conditional writes, keyset
+ * pages and searches, and batch writes that leave nothing behind when they fail.
+ */
+abstract class AppStoreContractTest {
+
+    private AppStore store;
+
+    protected abstract AppStore emptyStore();
+
+    @BeforeEach
+    void setUp() {
+        store = emptyStore();
+    }
+
+    @Test
+    void insertsUnderTheReservedIdAtRevisionZero() {
+        final App inserted = insert("Netflix", "Foo Bar", "1.0");
+
+        final App found = store.findById(inserted.getId()).block();
+        assertThat(found).isEqualTo(inserted);
+        assertThat(found.getRevision()).isZero();
+        assertThat(store.existsById(inserted.getId()).block()).isTrue();
+        assertThat(store.existsById(inserted.getId() + 1).block()).isFalse();
+    }
+
+    @Test
+    void refusesASecondAppOfTheSameName() {
+        final App first = insert("Netflix", "Foo Bar", "1.0");
+
+        assertThatThrownBy(() -> insert("Netflix", "Someone else", "2.0")).isInstanceOf(DuplicateKeyException.class);
+        assertThat(store.findPage(0L, 10).collectList().block()).containsExactly(first);
+    }
+
+    @Test
+    void findsByNameAndExactVersion() {
+        final App app = insert("Netflix", "Foo Bar", "1.0");
+
+        assertThat(store.findByNameAndVersion("Netflix", "1.0").block()).isEqualTo(app);
+        assertThat(store.findByNameAndVersion("Netflix", "1.0.1").block()).isNull();
+        assertThat(store.findByNameAndVersion("Netfli", "1.0").block()).isNull();
+    }
+
+    @Test
+    void updatesOnlyTheColumnsGivenAndBumpsTheRevision() {
+        final App app = insert("Netflix", "Foo Bar", "1.0");
+
+        assertThat(store.updateNonNullColumns(patch(app.getId(), null, "Bar Baz", null), null).block()).isEqualTo(1);
+
+        final App updated = store.findById(app.getId()).block();
+        assertThat(updated.getName()).isEqualTo("Netflix");
+        assertThat(updated.getAuthor()).isEqualTo("Bar Baz");
+        assertThat(updated.getVersion()).isEqualTo("1.0");
+        assertThat(updated.getRevision()).isEqualTo(1L);
+    }
+
+    @Test
+    void updatesOnlyAtTheExpectedRevision() {
+        final App app = insert("Netflix", "Foo Bar", "1.0");
+
+        assertThat(store.updateNonNullColumns(patch(app.getId(), null, "Stale", null), 1L).block()).isZero();
+        assertThat(store.updateNonNullColumns(patch(app.getId(), null, "Fresh", null), 0L).block()).isEqualTo(1);
+        assertThat(store.updateNonNullColumns(patch(app.getId() + 1, null, "Nobody", null), null).block()).isZero();
+        assertThat(store.findById(app.getId()).block().getAuthor()).isEqualTo("Fresh");
+    }
+
+    @Test
+    void renamesOnlyOntoFreeNamesAndReleasesTheOldOne() {
+        final App netflix = insert("Netflix", "Foo Bar", "1.0");
+        insert("Chrome", "Foo Bar", "1.0");
+
+        assertThatThrownBy(() -> store.updateNonNullColumns(patch(netflix.getId(), "Chrome", null, null), null).block())
+            .isInstanceOf(DuplicateKeyException.class);
+        assertThat(store.findById(netflix.getId()).block().getName()).isEqualTo("Netflix");
+
+        assertThat(store.updateNonNullColumns(patch(netflix.getId(), "Hulu", null, null), null).block()).isEqualTo(1);
+        assertThat(store.findByNameAndVersion("Hulu", "1.0").block().getId()).isEqualTo(netflix.getId());
+        assertThat(insert("Netflix", "Someone else", "2.0").getName()).isEqualTo("Netflix");
+    }
+
+    @Test
+    void deletesOnlyAtTheExpectedRevisionAndReleasesTheName() {
+        final App app = insert("Netflix", "Foo Bar", "1.0");
+
+        assertThat(store.deleteById(app.getId(), 1L).block()).isZero();
+        assertThat(store.deleteById(app.getId(), 0L).block()).isEqualTo(1);
+        assertThat(store.deleteById(app.getId(), null).block()).isZero();
+        assertThat(store.existsById(app.getId()).block()).isFalse();
+        assertThat(insert("Netflix", "Someone else", "2.0").getName()).isEqualTo("Netflix");
+    }
+
+    @Test
+    void pagesInIdOrderAfterTheGivenId() {
+        final List<App> apps = List.of(insert("A", "x", "1"), insert("B", "x", "1"), insert("C", "x", "1"), insert("D", "x", "1"));
+
+        assertThat(store.findPage(0L, 2).collectList().block()).containsExactly(apps.get(0), apps.get(1));
+        assertThat(store.findPage(apps.get(1).getId(), 2).collectList().block()).containsExactly(apps.get(2), apps.get(3));
+        assertThat(store.findPage(apps.get(3).getId(), 2).collectList().block()).isEmpty();
+    }
+
+    @Test
+    void searchesByNamePrefixAuthorAndVersionRange() {
+        final App chrome = insert("Chrome", "Google", "1.9");
+        final App chromium = insert("Chromium", "Google", "1.10");
+        insert("Chromecast", "Google", "2.0");
+        insert("Chrono", "Someone else", "1.10");
+        insert("Firefox", "Google", "1.10");
+
+        final AppSearchCriteria criteria = AppSearchCriteria.builder()
+            .namePrefix("Chrom")
+            .author("Google")
+            .minVersionKey(Versions.sortKey("1.9"))
+            .maxVersionKey(Versions.sortKey("1.10"))
+            .build();
+        assertThat(store.search(criteria, 10).collectList().block()).containsExactly(chrome, chromium);
+    }
+
+    @Test
+    void takesLikeWildcardsInTheNamePrefixLiterally() {
+        final App percent = insert("100% Free", "x", "1");
+        insert("1000 Apps", "x", "1");
+
+        assertThat(store.search(AppSearchCriteria.builder().namePrefix("100%").build(), 10).collectList().block()).containsExactly(percent);
+    }
+
+    @Test
+    void pagesSearchesByEverySortInBothDirections() {
+        for (int i = 0; i < 7; i++) {
+            insert("App " + (char) ('G' - i), "Author " + i % 3, "1." + i % 4);
+        }
+        final List<App> all = store.findPage(0L, 100).collectList().block();
+
+        for (AppSort sort : AppSort.values()) {
+            for (boolean descending : new boolean[]{false, true}) {
+                final List<App> expected = all.stream()
+                    .sorted((a, b) -> {
+                        final int compared = sort == AppSort.ID ? 0 : sort.getKey().apply(a).compareTo(sort.getKey().apply(b));
+                        final int order = compared != 0 ? compared : Long.compare(a.getId(), b.getId());
+                        return descending ? -order : order;
+                    })
+                    .collect(Collectors.toList());
+
+                final List<App> paged = new ArrayList<>();
+                AppSearchCriteria.AppSearchCriteriaBuilder criteria = AppSearchCriteria.builder().sort(sort).descending(descending);
+                List<App> page;
+                do {
+                    page = store.search(criteria.build(), 3).collectList().block();
+                    paged.addAll(page);
+                    if (!page.isEmpty()) {
+                        final App last = page.get(page.size() - 1);
+                        criteria = criteria.afterId(last.getId()).afterKey(sort.getKey().apply(last));
+                    }
+                } while (page.size() == 3);
+
+                assertThat(paged).as("%s %s", sort, descending ? "descending" : "ascending").containsExactlyElementsOf(expected);
+            }
+        }
+    }
+
+    @Test
+    void findsWhichNamesAreTaken() {
+        insert("Netflix", "Foo Bar", "1.0");
+        insert("Chrome", "Foo Bar", "1.0");
+
+        assertThat(store.findExistingNames(List.of("Netflix", "Hulu", "Chrome")).collectList().block())
+            .containsExactlyInAnyOrder("Netflix", "Chrome");
+    }
+
+    @Test
+    void insertsBatchesAllOrNothing() {
+        final App existing = insert("Chrome", "Foo Bar", "1.0");
+
+        final List<App> batch = List.of(app(reserve(), "Netflix", "x", "1"), app(reserve(), "Hulu", "x", "1"));
+        assertThat(store.insertAll(batch).collectList().block()).containsExactly(batch.get(0).getId(), batch.get(1).getId());
+
+        final List<App> clashing = List.of(app(reserve(), "Firefox", "x", "1"), app(reserve(), "Chrome", "x", "1"));
+        assertThatThrownBy(() -> store.insertAll(clashing).collectList().block()).isInstanceOf(DuplicateKeyException.class);
+        assertThat(store.findPage(0L, 10).map(App::getName).collectList().block()).containsExactly("Chrome", "Netflix", "Hulu");
+        assertThat(store.findById(existing.getId()).block()).isEqualTo(existing);
+    }
+
+    @Test
+    void updatesBatchesAllOrNothing() {
+        final App netflix = insert("Netflix", "Foo Bar", "1.0");
+        final App chrome = insert("Chrome", "Foo Bar", "1.0");
+
+        assertThat(store.updateAll(List.of(patch(netflix.getId(), null, "Bar Baz", null), patch(chrome.getId() + 1, null, "Nobody", null)))
+            .collectList().block()).containsExactly(1, 0);
+
+        final List<App> clashing = List.of(patch(netflix.getId(), null, "Rolled back", "2.0"), patch(chrome.getId(), "Netflix", null, null));
+        assertThatThrownBy(() -> store.updateAll(clashing).collectList().block()).isInstanceOf(DuplicateKeyException.class);
+
+        final App unchanged = store.findById(netflix.getId()).block();
+        assertThat(unchanged.getAuthor()).isEqualTo("Bar Baz");
+        assertThat(unchanged.getVersion()).isEqualTo("1.0");
+        assertThat(unchanged.getRevision()).isEqualTo(1L);
+        assertThat(store.findById(chrome.getId()).block()).isEqualTo(chrome);
+    }
+
+    @Test
+    void deletesBatchesItemByItem() {
+        final App netflix = insert("Netflix", "Foo Bar", "1.0");
+
+        assertThat(store.deleteAllById(List.of(netflix.getId(), netflix.getId() + 1)).collectList().block()).containsExactly(1, 0);
+        assertThat(store.existsById(netflix.getId()).block()).isFalse();
+    }
+
+    @Test
+    void mergesBatchesByIdAllOrNothing() {
+        final App netflix = insert("Netflix", "Foo Bar", "1.0");
+        final App chrome = insert("Chrome", "Foo Bar", "1.0");
+
+        final App replaced = app(netflix.getId(), "Netflix", "Bar Baz", "2.0");
+        replaced.setRevision(7L);
+        final App added = app(1_000L, "Hulu", "x", "1");
+        added.setRevision(3L);
+        assertThat(store.mergeAll(List.of(replaced, added)).collectList().block()).containsExactly(1, 1);
+        assertThat(store.findById(netflix.getId()).block()).isEqualTo(replaced);
+        assertThat(store.findById(1_000L).block()).isEqualTo(added);
+
+        final App renamed = app(netflix.getId(), "Rolled back", "x", "3.0");
+        renamed.setRevision(8L);
+        final App clashing = app(2_000L, "Chrome", "x", "1");
+        clashing.setRevision(0L);
+        assertThatThrownBy(() -> store.mergeAll(List.of(renamed, clashing)).collectList().block()).isInstanceOf(DuplicateKeyException.class);
+        assertThat(store.findById(netflix.getId()).block()).isEqualTo(replaced);
+        assertThat(store.findById(chrome.getId()).block()).isEqualTo(chrome);
+        assertThat(store.existsById(2_000L).block()).isFalse();
+        assertThat(store.findByNameAndVersion("Netflix", "2.0").block()).isEqualTo(replaced);
+    }
+
+    @Test
+    void reservesIdsPastEveryOtherReservationAndMergedId() {
+        final long first = store.reserveIds(10).block();
+        final long second = store.reserveIds(5).block();
+        assertThat(second).isGreaterThanOrEqualTo(first + 10);
+
+        final App merged = app(second + 100, "Netflix", "Foo Bar", "1.0");
+        merged.setRevision(0L);
+        store.mergeAll(List.of(merged)).blockLast();
+        assertThat(store.reserveIds(1).block()).isGreaterThan(merged.getId());
+    }
+
+    private App insert(String name, String author, String version) {
+        return store.insert(app(reserve(), name, author, version)).block();
+    }
+
+    private long reserve() {
+        return store.reserveIds(1).block();
+    }
+
+    private static App app(Long id, String name, String author, String version) {
+        final App app = new App(id, name, author, version);
+        app.setVersionKey(Versions.sortKey(version));
+        return app;
+    }
+
+    private static App patch(Long id, String name, String author, String version) {
+        final App app = new App(id, name, author, version);
+        app.setVersionKey(version == null ? null : Versions.sortKey(version));
+        return app;
+    }
+
+}
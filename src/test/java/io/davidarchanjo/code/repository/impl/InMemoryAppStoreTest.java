@@ -0,0 +1,12 @@
+package io.davidarchanjo.code.repository.impl;
+
+import io.davidarchanjo.code.repository.AppStore;
+
+class InMemoryAppStoreTest extends AppStoreContractTest {
+
+    @Override
+    protected AppStore emptyStore() {
+        return new InMemoryAppStore();
+    }
+
+}
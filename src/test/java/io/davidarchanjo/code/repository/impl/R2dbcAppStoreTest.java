@@ -0,0 +1,31 @@
+package io.davidarchanjo.code.repository.impl;
+
+import io.davidarchanjo.code.application.Application;
+import io.davidarchanjo.code.repository.AppStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * The database store as the application sets it up, over a database of its own that is emptied before each
+ * test; the id counter is kept, as it only ever moves forward.
+ */
+@SpringBootTest(
+    classes = Application.class,
+    webEnvironment = SpringBootTest.WebEnvironment.NONE,
+    properties = "spring.r2dbc.url=r2dbc:h2:mem:///contractdb?options=DB_CLOSE_DELAY=-1")
+class R2dbcAppStoreTest extends AppStoreContractTest {
+
+    @Autowired
+    private AppStore store;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Override
+    protected AppStore emptyStore() {
+        databaseClient.sql("DELETE FROM app").then().block();
+        return store;
+    }
+
+}
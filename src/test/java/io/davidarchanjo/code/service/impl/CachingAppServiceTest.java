@@ -0,0 +1,63 @@
+package io.davidarchanjo.code.service.impl;
+
+import io.davidarchanjo.code.config.AppProperties;
+import io.davidarchanjo.code.exception.AppNotFoundException;
+import io.davidarchanjo.code.model.dto.AppDTO;
+import io.davidarchanjo.code.service.AppService;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * How many lookups reach the service behind the cache, by name and version: the id is cached, and the app read
+ * through the id cache.
+ */
+class CachingAppServiceTest {
+
+    private final AppService delegate = mock(AppService.class);
+    private final CachingAppService cache = new CachingAppService(delegate, new AppProperties.Cache(), null, null);
+
+    @Test
+    void missingNameAndVersionIsLookedUpOnce() {
+        when(delegate.findByNameAndVersion("Netflix", "1.0")).thenReturn(Mono.error(new AppNotFoundException("not found")));
+
+        assertThatThrownBy(() -> cache.findByNameAndVersion("Netflix", "1.0").block()).isInstanceOf(AppNotFoundException.class);
+
+        verify(delegate, times(1)).findByNameAndVersion("Netflix", "1.0");
+    }
+
+    @Test
+    void cachedNameAndVersionIsReadThroughTheId() {
+        when(delegate.findByNameAndVersion("Netflix", "1.0")).thenReturn(Mono.just(app(1L, "Netflix", "1.0")));
+        when(delegate.findById(1L)).thenReturn(Mono.just(app(1L, "Netflix", "1.0")));
+
+        assertThat(cache.findByNameAndVersion("Netflix", "1.0").block().getId()).isEqualTo(1L);
+        assertThat(cache.findByNameAndVersion("Netflix", "1.0").block().getId()).isEqualTo(1L);
+
+        verify(delegate, times(1)).findByNameAndVersion("Netflix", "1.0");
+        verify(delegate, times(1)).findById(1L);
+    }
+
+    @Test
+    void idOfADeletedAppIsDroppedForAFreshLookup() {
+        when(delegate.findByNameAndVersion("Netflix", "1.0")).thenReturn(Mono.just(app(1L, "Netflix", "1.0")));
+        when(delegate.findById(1L)).thenReturn(Mono.error(new AppNotFoundException("not found")));
+
+        assertThat(cache.findByNameAndVersion("Netflix", "1.0").block().getId()).isEqualTo(1L);
+
+        verify(delegate, times(2)).findByNameAndVersion("Netflix", "1.0");
+    }
+
+    private static AppDTO app(Long id, String name, String version) {
+        final AppDTO o = new AppDTO(name, version, "Foo Bar");
+        o.setId(id);
+        return o;
+    }
+
+}
@@ -0,0 +1,61 @@
+package io.davidarchanjo.code.service.impl;
+
+import io.davidarchanjo.code.application.Application;
+import io.davidarchanjo.code.model.dto.AppDTO;
+import io.davidarchanjo.code.service.AppService;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many clients creating an app of the same name at once, through either endpoint family: the unique index is
+ * all that stands between them, so exactly one may get in.
+ */
+@SpringBootTest(
+    classes = Application.class,
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        // Every request comes from the same client, and all of them at once.
+        "app.rate-limit.enabled=false",
+        "app.shedding.enabled=false"
+    })
+class ConcurrentCreateTest {
+
+    private static final int CLIENTS = 64;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private AppService service;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"functional", "annotation"})
+    void onlyOneOfConcurrentDuplicatesIsCreated(String family) {
+        final String name = "Duplicate " + family;
+        final WebClient client = WebClient.create("http://localhost:" + port);
+
+        final Map<Integer, Long> statuses = Flux.range(0, CLIENTS)
+            .flatMap(i -> client.post().uri("/api/" + family + "/apps")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new AppDTO(name, "1.0." + i, "Author " + i))
+                .exchangeToMono(o -> o.releaseBody().thenReturn(o.rawStatusCode())), CLIENTS)
+            .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
+            .block();
+
+        assertThat(statuses).containsOnly(Map.entry(201, 1L), Map.entry(409, CLIENTS - 1L));
+        assertThat(service.findAll().filter(o -> name.equals(o.getName())).count().block()).isEqualTo(1L);
+    }
+
+}
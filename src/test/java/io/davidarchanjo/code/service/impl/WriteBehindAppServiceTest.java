@@ -0,0 +1,67 @@
+package io.davidarchanjo.code.service.impl;
+
+import io.davidarchanjo.code.config.AppProperties;
+import io.davidarchanjo.code.event.LocalAppInvalidations;
+import io.davidarchanjo.code.model.dto.AppBatchResultDTO;
+import io.davidarchanjo.code.model.dto.AppDTO;
+import io.davidarchanjo.code.service.AppService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * What lookups show of the updates queued for an app while they are stored, some of them failing.
+ */
+class WriteBehindAppServiceTest {
+
+    private final AppService delegate = mock(AppService.class);
+    private final Sinks.One<AppBatchResultDTO> second = Sinks.one();
+    private WriteBehindAppService writeBehind;
+
+    @AfterEach
+    void close() {
+        second.tryEmitValue(AppBatchResultDTO.builder().index(1).status(HttpStatus.NO_CONTENT.value()).id(1L).build());
+        writeBehind.close();
+    }
+
+    @Test
+    void failedUpdateIsDroppedFromWhatLookupsShow() {
+        final AppProperties.WriteBehind properties = new AppProperties.WriteBehind();
+        properties.setFlushSize(2);
+        properties.setFlushInterval(Duration.ofHours(1));
+        properties.setAck(AppProperties.WriteBehind.Ack.ENQUEUE);
+        writeBehind = new WriteBehindAppService(delegate, properties, new LocalAppInvalidations());
+        when(delegate.findById(1L)).thenReturn(Mono.fromSupplier(() -> app("Netflix", "0.0.1-SNAPSHOT", "Foo Bar", 3L)));
+        // The first update is refused, the second held back until the lookup is made.
+        when(delegate.updateAll(any())).thenReturn(Flux.concat(
+            Mono.just(AppBatchResultDTO.builder().index(0).status(HttpStatus.CONFLICT.value()).id(1L).build()),
+            second.asMono()));
+
+        writeBehind.updateById(1L, app("Taken", null, null, null), null).block();
+        writeBehind.updateById(1L, app(null, null, "Baz Qux", null), null).block();
+
+        assertThat(writeBehind.findById(1L).block()).isEqualTo(app("Netflix", "0.0.1-SNAPSHOT", "Baz Qux", 4L));
+
+        second.tryEmitValue(AppBatchResultDTO.builder().index(1).status(HttpStatus.NO_CONTENT.value()).id(1L).build());
+
+        assertThat(writeBehind.findById(1L).block()).isEqualTo(app("Netflix", "0.0.1-SNAPSHOT", "Foo Bar", 3L));
+    }
+
+    private static AppDTO app(String name, String version, String author, Long revision) {
+        final AppDTO o = new AppDTO(name, version, author);
+        o.setId(1L);
+        o.setRevision(revision);
+        return o;
+    }
+
+}